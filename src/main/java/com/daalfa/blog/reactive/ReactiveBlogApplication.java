@@ -0,0 +1,46 @@
+package com.daalfa.blog.reactive;
+
+import com.daalfa.blog.service.cache.PostCollectionStamp;
+import com.daalfa.blog.service.exception.ExpectedErrorLogProperties;
+import com.daalfa.blog.service.exception.GlobalExceptionHandler;
+import com.daalfa.blog.service.mapper.BlogPostMapper;
+import org.mapstruct.factory.Mappers;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Reactive variant of the post API: the four post endpoints with the same DTOs and error responses as
+ * {@code BlogServiceApplication}, served by WebFlux on Netty and backed by R2DBC instead of Spring MVC and JPA.
+ * <p>
+ * It reads {@code reactive.properties} instead of {@code application.properties}, so both variants can run side
+ * by side. JDBC is only used by Liquibase to create the schema.
+ */
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
+@EnableConfigurationProperties(ExpectedErrorLogProperties.class)
+@Import({GlobalExceptionHandler.class, PostCollectionStamp.class})
+public class ReactiveBlogApplication {
+
+    public static final String CONFIG_NAME = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveBlogApplication.class)
+                .properties("spring.config.name=" + CONFIG_NAME)
+                .run(args);
+    }
+
+    // Tomcat is on the classpath for the servlet variant and would otherwise be preferred to Netty
+    @Bean
+    NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    BlogPostMapper blogPostMapper() {
+        return Mappers.getMapper(BlogPostMapper.class);
+    }
+}
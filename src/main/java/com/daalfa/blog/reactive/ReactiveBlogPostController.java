@@ -0,0 +1,99 @@
+package com.daalfa.blog.reactive;
+
+import com.daalfa.blog.service.cache.PostCollectionStamp;
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The four post endpoints of {@code BlogPostController} on WebFlux, with the same paths, status codes,
+ * cursor headers and ETags. Validation errors are mapped by the same {@code GlobalExceptionHandler}.
+ */
+@RestController
+@RequestMapping("/posts")
+@Validated
+public class ReactiveBlogPostController {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ReactiveBlogPostService blogPostService;
+    private final PostCollectionStamp collectionStamp;
+
+    public ReactiveBlogPostController(ReactiveBlogPostService blogPostService,
+                                      PostCollectionStamp collectionStamp) {
+        this.blogPostService = blogPostService;
+        this.collectionStamp = collectionStamp;
+    }
+
+    /**
+     * Post detail with an ETag derived from the post version; a matching {@code If-None-Match} is answered with 304.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BlogPostResponseWithCommentsDTO>> getPostById(@PathVariable @Positive Long id) {
+        return blogPostService.getPostById(id)
+                .map(post -> ResponseEntity.ok()
+                        .eTag("W/\"" + id + "-" + post.version() + "\"")
+                        .body(post));
+    }
+
+    /**
+     * Keyset-paginated listing. The cursor of the next page, if any, is returned in the
+     * {@value #NEXT_CURSOR_HEADER} header and as a {@code Link rel="next"}.
+     * Pages carry an ETag derived from the collection stamp, so a matching {@code If-None-Match}
+     * is answered with 304 without querying the database.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<BlogPostResponseSummaryDTO>>> getAllPosts(
+            @RequestParam(defaultValue = "0") @PositiveOrZero long after,
+            @RequestParam(defaultValue = "50") @Positive @Max(MAX_PAGE_SIZE) int limit,
+            UriComponentsBuilder uriBuilder,
+            ServerWebExchange exchange) {
+        // read before the query, so a write racing with it can only make the ETag older than the page
+        if (exchange.checkNotModified("W/\"posts-" + collectionStamp.current() + "\"")) {
+            return Mono.empty();
+        }
+        return blogPostService.getAllPosts(after, limit).map(page -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                String next = uriBuilder.path("/posts")
+                        .queryParam("after", page.nextCursor())
+                        .queryParam("limit", limit)
+                        .toUriString();
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor().toString())
+                        .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            return response.body(page.posts());
+        });
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BlogPostResponseDTO> createPost(@Valid @RequestBody BlogPostRequestDTO post) {
+        return blogPostService.createPost(post);
+    }
+
+    @PostMapping("/{id}/comments")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<CommentDTO> createComment(@PathVariable @Positive Long id,
+                                          @Valid @RequestBody CommentDTO comment) {
+        return blogPostService.createComment(id, comment);
+    }
+}
@@ -0,0 +1,105 @@
+package com.daalfa.blog.reactive;
+
+import com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO;
+import com.daalfa.blog.service.repository.PostDetailRow;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The statements of {@code BlogPostRepository} that the reactive variant needs, in SQL over R2DBC.
+ * <p>
+ * Ids come from the same pooled sequences Hibernate uses. One value is taken per row, which skips ids but
+ * stays clear of the blocks Hibernate hands out, so both variants can write to the same database.
+ */
+@Repository
+public class ReactiveBlogPostRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveBlogPostRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Summaries of the posts with an id greater than {@code after}, in id order.
+     */
+    public Flux<BlogPostResponseSummaryDTO> findSummariesAfter(long after, int limit) {
+        return databaseClient.sql("""
+                        SELECT id, title, content, comment_count FROM post
+                        WHERE id > :after ORDER BY id LIMIT :limit
+                        """)
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(row -> new BlogPostResponseSummaryDTO(
+                        row.get("id", Long.class),
+                        row.get("title", String.class),
+                        row.get("content", String.class),
+                        row.get("comment_count", Integer.class)))
+                .all();
+    }
+
+    /**
+     * The post with its first comments, one row per comment in id order, as {@code BlogPostRepository#findDetailRows}.
+     * No rows when the post does not exist.
+     */
+    public Flux<PostDetailRow> findDetailRows(Long id, int limit) {
+        return databaseClient.sql("""
+                        SELECT p.id, p.title, p.content, p.comment_count, p.version, c.id AS comment_id, c.message
+                        FROM post p LEFT JOIN comment c ON c.post_id = p.id
+                        WHERE p.id = :id ORDER BY c.id LIMIT :limit
+                        """)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(row -> new PostDetailRow(
+                        row.get("id", Long.class),
+                        row.get("title", String.class),
+                        row.get("content", String.class),
+                        row.get("comment_count", Integer.class),
+                        row.get("version", Long.class),
+                        row.get("comment_id", Long.class),
+                        row.get("message", String.class)))
+                .all();
+    }
+
+    /**
+     * @return the id of the new post
+     */
+    public Mono<Long> insertPost(String title, String content) {
+        return databaseClient.sql("INSERT INTO post (id, title, content) VALUES (NEXT VALUE FOR post_seq, :title, :content)")
+                .bind("title", title)
+                .bind("content", content)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    /**
+     * @return the id of the new comment
+     */
+    public Mono<Long> insertComment(Long postId, String message) {
+        return databaseClient.sql("INSERT INTO comment (id, message, post_id) VALUES (NEXT VALUE FOR comment_seq, :message, :postId)")
+                .bind("message", message)
+                .bind("postId", postId)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    /**
+     * Adds {@code delta} to the comment counter of a post and bumps its version, in one atomic update.
+     *
+     * @return the number of updated rows, 0 when the post does not exist
+     */
+    public Mono<Long> incrementCommentCount(Long id, int delta) {
+        return databaseClient.sql("""
+                        UPDATE post SET comment_count = comment_count + :delta, version = version + 1
+                        WHERE id = :id
+                        """)
+                .bind("delta", delta)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+}
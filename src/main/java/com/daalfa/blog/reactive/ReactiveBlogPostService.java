@@ -0,0 +1,107 @@
+package com.daalfa.blog.reactive;
+
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.BlogPostSummaryPageDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.event.CommentCreatedEvent;
+import com.daalfa.blog.service.event.PostCreatedEvent;
+import com.daalfa.blog.service.exception.NotFoundException;
+import com.daalfa.blog.service.mapper.BlogPostMapper;
+import com.daalfa.blog.service.repository.PostDetailRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalEventPublisher;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive counterpart of {@code BlogPostService} for the four post endpoints, with the same paging and
+ * embedding rules. There is no post cache, search index or id bitmap: every request goes to the database.
+ * <p>
+ * Writes publish the same events as {@code BlogPostService}, bound to the R2DBC transaction, so
+ * {@code @TransactionalEventListener}s such as {@code PostCollectionStamp} run after the commit.
+ */
+@Service
+@Slf4j
+public class ReactiveBlogPostService {
+
+    /**
+     * Comments embedded in the post detail, as in {@code BlogPostService}.
+     */
+    static final int EMBEDDED_COMMENTS = 20;
+
+    private final ReactiveBlogPostRepository repository;
+    private final BlogPostMapper mapper;
+    private final TransactionalEventPublisher eventPublisher;
+
+    public ReactiveBlogPostService(ReactiveBlogPostRepository repository,
+                                   BlogPostMapper mapper,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.eventPublisher = new TransactionalEventPublisher(eventPublisher);
+    }
+
+    public Mono<BlogPostResponseWithCommentsDTO> getPostById(Long id) {
+        log.debug("Get post by id: {}", id);
+        // fetch one extra comment to know whether there is a next page without a count query
+        return repository.findDetailRows(id, EMBEDDED_COMMENTS + 1)
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("BlogPost not found")))
+                .map(this::toPost);
+    }
+
+    public Mono<BlogPostSummaryPageDTO> getAllPosts(long after, int limit) {
+        log.debug("Get all posts after: {}, limit: {}", after, limit);
+        // fetch one extra row to know whether there is a next page without a count query
+        return repository.findSummariesAfter(after, limit + 1)
+                .collectList()
+                .map(posts -> {
+                    if (posts.size() <= limit) {
+                        return new BlogPostSummaryPageDTO(posts, null);
+                    }
+                    List<BlogPostResponseSummaryDTO> page = posts.subList(0, limit);
+                    return new BlogPostSummaryPageDTO(List.copyOf(page), page.get(limit - 1).id());
+                });
+    }
+
+    @Transactional
+    public Mono<BlogPostResponseDTO> createPost(BlogPostRequestDTO post) {
+        log.debug("Create post: {}", post.title());
+        return repository.insertPost(post.title(), post.content())
+                .map(id -> new BlogPostResponseDTO(id, post.title(), post.content()))
+                .flatMap(created -> eventPublisher.publishEvent(new PostCreatedEvent(created)).thenReturn(created));
+    }
+
+    @Transactional
+    public Mono<CommentDTO> createComment(Long id, CommentDTO comment) {
+        log.debug("Create comment for post: {}", id);
+        // the counter update doubles as the existence check and locks the post row until commit
+        return repository.incrementCommentCount(id, 1)
+                .filter(updated -> updated > 0)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("BlogPost not found")))
+                .then(repository.insertComment(id, comment.message()))
+                .flatMap(commentId -> {
+                    CommentDTO created = new CommentDTO(comment.message());
+                    return eventPublisher.publishEvent(new CommentCreatedEvent(id, commentId, created))
+                            .thenReturn(created);
+                });
+    }
+
+    private BlogPostResponseWithCommentsDTO toPost(List<PostDetailRow> rows) {
+        Long nextCursor = rows.size() > EMBEDDED_COMMENTS ? rows.get(EMBEDDED_COMMENTS - 1).commentId() : null;
+        List<CommentDTO> comments = rows.stream()
+                .filter(row -> row.commentId() != null)
+                .limit(EMBEDDED_COMMENTS)
+                .map(row -> new CommentDTO(row.message()))
+                .toList();
+        return mapper.toBlogPostResponseWithCommentsDTO(rows.getFirst(), comments, nextCursor);
+    }
+}
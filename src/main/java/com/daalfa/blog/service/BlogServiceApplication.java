@@ -2,8 +2,12 @@ package com.daalfa.blog.service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
-@SpringBootApplication
+// R2DBC is on the classpath for the reactive variant (com.daalfa.blog.reactive); this application uses JPA only
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@ConfigurationPropertiesScan
 public class BlogServiceApplication {
 
 	public static void main(String[] args) {
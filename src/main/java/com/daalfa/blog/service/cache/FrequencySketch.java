@@ -0,0 +1,109 @@
+package com.daalfa.blog.service.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch of how often ids were seen recently, with 4-bit counters, as in TinyLFU.
+ * <p>
+ * Every id has one counter in each of four rows and its frequency is the smallest of them, so collisions
+ * can only overestimate it. Counters saturate at 15. Once {@code sampleSize} increments have been counted
+ * all counters are halved, so ids that stop being seen fade out. Increments that race with the halving
+ * may be lost, which only makes the estimate a little lower.
+ * <p>
+ * The table holds 16 counters per {@code long}, about one per ten increments of a sample:
+ * a sample of 10,000 takes 8 KiB.
+ */
+final class FrequencySketch {
+
+    static final int MAX_FREQUENCY = 15;
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    FrequencySketch(int sampleSize) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("sampleSize must be positive: " + sampleSize);
+        }
+        int tableLength = Math.max(16, Integer.highestOneBit(Math.max(1, sampleSize / 10) - 1) << 1);
+        this.table = new AtomicLongArray(tableLength);
+        this.tableMask = tableLength - 1;
+        this.sampleSize = sampleSize;
+    }
+
+    int frequency(long id) {
+        int frequency = MAX_FREQUENCY;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long hash = hash(id, row);
+            long counters = table.get(index(hash));
+            frequency = Math.min(frequency, (int) (counters >>> shift(hash)) & MAX_FREQUENCY);
+        }
+        return frequency;
+    }
+
+    /**
+     * Counts one occurrence of {@code id}.
+     *
+     * @return whether this increment completed a sample and all counters were halved
+     */
+    boolean increment(long id) {
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long hash = hash(id, row);
+            added |= incrementCounter(index(hash), shift(hash));
+        }
+        // saturated ids do not count, so the sample is made of the reads that still tell ids apart
+        if (added && additions.incrementAndGet() == sampleSize) {
+            reset();
+            return true;
+        }
+        return false;
+    }
+
+    long memoryBytes() {
+        return (long) table.length() * Long.BYTES;
+    }
+
+    private boolean incrementCounter(int index, int shift) {
+        long counters;
+        do {
+            counters = table.get(index);
+            if (((counters >>> shift) & MAX_FREQUENCY) == MAX_FREQUENCY) {
+                return false;
+            }
+        } while (!table.compareAndSet(index, counters, counters + (1L << shift)));
+        return true;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length(); i++) {
+            long counters;
+            do {
+                counters = table.get(i);
+            } while (!table.compareAndSet(i, counters, (counters >>> 1) & RESET_MASK));
+        }
+        // the halved counters still account for half a sample
+        additions.addAndGet(sampleSize / 2 - sampleSize);
+    }
+
+    private int index(long hash) {
+        return (int) (hash >>> 32) & tableMask;
+    }
+
+    private static int shift(long hash) {
+        return ((int) hash & 15) << 2;
+    }
+
+    private static long hash(long id, int row) {
+        long hash = (id + SEEDS[row]) * SEEDS[row];
+        hash ^= hash >>> 29;
+        hash *= 0xbf58476d1ce4e5b9L;
+        return hash ^ (hash >>> 32);
+    }
+}
@@ -0,0 +1,30 @@
+package com.daalfa.blog.service.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the precomputed responses of hot posts.
+ *
+ * @param enabled    whether {@code GET /posts/{id}} keeps the JSON of the most read posts
+ * @param sampleSize reads after which the read counts are halved, so posts stop being hot when their reads drop
+ * @param threshold  estimated reads within a sample that make a post hot, at most 15; a post stays hot until
+ *                   a halving leaves it under half of this
+ * @param maxPosts   maximum number of hot posts
+ * @param maxMemory  maximum size of the JSON kept for them
+ * @param ttl        age after which the JSON of a hot post is built again, so comments written by another
+ *                   instance, the reactive variant or plain SQL, which publish no event here, show up within it
+ */
+@ConfigurationProperties("blog.cache.hot-posts")
+public record HotPostProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") int sampleSize,
+        @DefaultValue("8") int threshold,
+        @DefaultValue("1000") int maxPosts,
+        @DefaultValue("16MB") DataSize maxMemory,
+        @DefaultValue("30s") Duration ttl
+) {
+}
@@ -0,0 +1,223 @@
+package com.daalfa.blog.service.cache;
+
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.event.CommentCreatedEvent;
+import com.daalfa.blog.service.exception.NotFoundException;
+import com.daalfa.blog.service.service.BlogPostService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The serialized {@link BlogPostResponseWithCommentsDTO} of the most read posts, for {@code GET /posts/{id}}
+ * to write as is, without the service, the mapper and Jackson.
+ * <p>
+ * Every read is counted in a {@link FrequencySketch}. A post whose estimated reads reach the threshold is hot: its
+ * JSON is built on a virtual thread, with the {@code ObjectMapper} the converters use, and published once complete.
+ * It is built from the primary, never from {@link PostDetailCache}, which may hold a copy loaded from a lagging
+ * replica, so the bytes are as fresh as the last commit.
+ * After each halving of the sketch the posts left under half the threshold are dropped.
+ * <p>
+ * A new comment on a hot post withdraws its JSON once the transaction commits and builds it again in the background,
+ * so readers never get a comment list older than the last committed write. In between reads take the usual path.
+ * A build that was overtaken by another comment is discarded and run again.
+ * <p>
+ * Comments written elsewhere publish no event here, so JSON older than {@code blog.cache.hot-posts.ttl} is treated
+ * as missing and built again the same way.
+ */
+@Component
+@Slf4j
+public class HotPostResponses {
+
+    /**
+     * The JSON of a post and the version it was built from.
+     */
+    public record Response(byte[] json, long version) {
+    }
+
+    private final boolean enabled;
+    private final FrequencySketch sketch;
+    private final int threshold;
+    private final int maxPosts;
+    private final long maxMemory;
+    private final long ttlNanos;
+    private final BlogPostService blogPostService;
+    private final ObjectWriter writer;
+
+    // a slot without a response is being built; slots are compared by identity, so a build can tell it was overtaken
+    private final Map<Long, Slot> posts = new ConcurrentHashMap<>();
+    private final AtomicLong memory = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public HotPostResponses(HotPostProperties properties,
+                            BlogPostService blogPostService,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        if (properties.threshold() > FrequencySketch.MAX_FREQUENCY) {
+            throw new IllegalArgumentException("blog.cache.hot-posts.threshold must be at most "
+                    + FrequencySketch.MAX_FREQUENCY + ": " + properties.threshold());
+        }
+        this.enabled = properties.enabled();
+        this.sketch = enabled ? new FrequencySketch(properties.sampleSize()) : null;
+        this.threshold = properties.threshold();
+        this.maxPosts = properties.maxPosts();
+        this.maxMemory = properties.maxMemory().toBytes();
+        this.ttlNanos = properties.ttl().toNanos();
+        this.blogPostService = blogPostService;
+        this.writer = objectMapper.writerFor(BlogPostResponseWithCommentsDTO.class);
+
+        this.hits = Counter.builder("posts.hot.requests")
+                .tag("result", "hit")
+                .description("Post reads answered with the precomputed JSON of a hot post")
+                .register(meterRegistry);
+        this.misses = Counter.builder("posts.hot.requests")
+                .tag("result", "miss")
+                .description("Post reads that had no precomputed JSON")
+                .register(meterRegistry);
+        Gauge.builder("posts.hot.hit.ratio", this, HotPostResponses::hitRatio)
+                .description("Share of the post reads answered with precomputed JSON")
+                .register(meterRegistry);
+        Gauge.builder("posts.hot.size", posts, Map::size)
+                .description("Hot posts, including those whose JSON is being built")
+                .register(meterRegistry);
+        Gauge.builder("posts.hot.memory", this, HotPostResponses::memoryBytes)
+                .baseUnit("bytes")
+                .description("Memory held by the precomputed JSON and the read frequency sketch")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("Hot post responses enabled: {}", properties);
+        }
+    }
+
+    /**
+     * Counts a read of the post and returns its precomputed JSON, or {@code null} when the post is not hot
+     * or its JSON is being built. After a {@code null} the post is read as usual and passed to {@link #offer}.
+     */
+    public Response get(Long id) {
+        if (!enabled) {
+            return null;
+        }
+        if (sketch.increment(id)) {
+            dropColdPosts();
+        }
+        Slot slot = posts.get(id);
+        if (slot == null || slot.response == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - slot.builtAt > ttlNanos) {
+            // only one reader wins the swap and starts the build
+            if (posts.replace(id, slot, new Slot(null, 0))) {
+                memory.addAndGet(-slot.response.json().length);
+                startBuild(id);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return slot.response;
+    }
+
+    /**
+     * Starts building the JSON of a post that was just read, if it became hot and there is room for it.
+     */
+    public void offer(Long id) {
+        if (!enabled || sketch.frequency(id) < threshold || posts.containsKey(id)
+                || posts.size() >= maxPosts || memory.get() >= maxMemory) {
+            return;
+        }
+        if (posts.putIfAbsent(id, new Slot(null, 0)) == null) {
+            startBuild(id);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        boolean[] built = new boolean[1];
+        posts.computeIfPresent(event.postId(), (id, slot) -> {
+            built[0] = slot.response != null;
+            if (built[0]) {
+                memory.addAndGet(-slot.response.json().length);
+            }
+            return new Slot(null, 0);
+        });
+        // a build already running sees its slot replaced and starts over
+        if (built[0]) {
+            startBuild(event.postId());
+        }
+    }
+
+    private void startBuild(Long id) {
+        Thread.ofVirtual().name("hot-post-" + id).start(() -> build(id));
+    }
+
+    private void build(Long id) {
+        Slot pending;
+        while ((pending = posts.get(id)) != null && pending.response == null) {
+            Slot built;
+            try {
+                // aged from before the read, which is what the JSON can be older than
+                long start = System.nanoTime();
+                BlogPostResponseWithCommentsDTO post = blogPostService.getPostByIdUncached(id);
+                built = new Slot(new Response(writer.writeValueAsBytes(post), post.version()), start);
+            } catch (NotFoundException e) {
+                posts.remove(id, pending);
+                return;
+            } catch (Exception e) {
+                log.warn("Could not build the response of hot post {}", id, e);
+                posts.remove(id, pending);
+                return;
+            }
+            if (posts.replace(id, pending, built)) {
+                memory.addAndGet(built.response.json().length);
+                return;
+            }
+        }
+    }
+
+    private void dropColdPosts() {
+        for (Long id : posts.keySet()) {
+            if (sketch.frequency(id) < threshold / 2) {
+                posts.computeIfPresent(id, (key, slot) -> {
+                    if (slot.response != null) {
+                        memory.addAndGet(-slot.response.json().length);
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private long memoryBytes() {
+        return enabled ? memory.get() + sketch.memoryBytes() : 0;
+    }
+
+    private static final class Slot {
+
+        private final Response response;
+        private final long builtAt;
+
+        private Slot(Response response, long builtAt) {
+            this.response = response;
+            this.builtAt = builtAt;
+        }
+    }
+}
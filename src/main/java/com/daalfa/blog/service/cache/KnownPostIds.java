@@ -0,0 +1,156 @@
+package com.daalfa.blog.service.cache;
+
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids of every existing post, in a {@link PostIdBitmap}, so requests for posts that exist are
+ * checked without a query, and repeated requests for posts that do not exist as well.
+ * <p>
+ * The ids are loaded before the web server starts, and every post persisted through JPA is added by
+ * {@link KnownPostIdsListener}, before its transaction commits; a rolled back or deleted post stays
+ * known, and only costs the query the bitmap would have saved. Posts written elsewhere, by another
+ * instance, the reactive variant or plain SQL, are not in the bitmap: an id missing from it is looked
+ * up in the database, and added when found. Ids not found there either are remembered for
+ * {@code blog.cache.known-posts.negative-ttl}, so a burst of requests for them costs one query.
+ * <p>
+ * Ids above the last value of {@code post_seq} were never handed out, so they are answered without a query at all,
+ * which covers clients enumerating ids past the newest post. That value is read at most once per negative TTL, and
+ * only for such an id; posts persisted here raise it without a read.
+ */
+@Component
+@Slf4j
+public class KnownPostIds implements SmartInitializingSingleton {
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final PostIdBitmap ids = new PostIdBitmap();
+    private final Cache<Long, Boolean> absentIds;
+    private final long sequenceTtlNanos;
+    private final AtomicLong idCeiling = new AtomicLong();
+    private final AtomicLong ceilingReadAt;
+    private final Counter found;
+    private final Counter absent;
+    private final Counter unallocated;
+
+    // Hibernate creates the entity listener, which needs this bean, while it builds the repositories
+    private final ObjectProvider<BlogPostRepository> blogPostRepository;
+
+    public KnownPostIds(ObjectProvider<BlogPostRepository> blogPostRepository,
+                        KnownPostIdsProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.blogPostRepository = blogPostRepository;
+        this.absentIds = Caffeine.newBuilder()
+                .expireAfterWrite(properties.negativeTtl())
+                .maximumSize(properties.negativeMaximumSize())
+                .build();
+        this.sequenceTtlNanos = properties.negativeTtl().toNanos();
+        // stale from the start, so the first id above the ceiling reads the sequence
+        this.ceilingReadAt = new AtomicLong(System.nanoTime() - sequenceTtlNanos - 1);
+
+        Gauge.builder("posts.known.ids", ids, PostIdBitmap::cardinality)
+                .description("Number of post ids in the existence bitmap")
+                .register(meterRegistry);
+        Gauge.builder("posts.known.memory", ids, PostIdBitmap::estimatedMemoryBytes)
+                .description("Estimated heap used by the existence bitmap")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.found = Counter.builder("posts.known.lookups")
+                .tag("result", "found")
+                .description("Ids missing from the existence bitmap that were found in the database")
+                .register(meterRegistry);
+        this.absent = Counter.builder("posts.known.lookups")
+                .tag("result", "absent")
+                .description("Ids missing from the existence bitmap and from the database")
+                .register(meterRegistry);
+        this.unallocated = Counter.builder("posts.known.lookups")
+                .tag("result", "unallocated")
+                .description("Ids above the last value of the post sequence, answered without a query")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        reload();
+        log.info("Known post ids loaded in {} ms: {} ids, ~{} KiB",
+                (System.nanoTime() - start) / 1_000_000, ids.cardinality(), ids.estimatedMemoryBytes() / 1024);
+    }
+
+    /**
+     * Reads the post sequence and adds the ids of every post in the database, page by page.
+     */
+    public void reload() {
+        BlogPostRepository repository = blogPostRepository.getObject();
+        readCeiling(repository);
+        long after = 0;
+        List<Long> page;
+        do {
+            page = repository.findIdsAfter(after, Limit.of(LOAD_PAGE_SIZE));
+            page.forEach(ids::add);
+            after = page.isEmpty() ? after : page.getLast();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        // a post inserted with an id of its own choosing stays reachable
+        idCeiling.accumulateAndGet(after, Math::max);
+    }
+
+    public boolean exists(Long id) {
+        if (id == null || id <= 0) {
+            return false;
+        }
+        if (ids.contains(id)) {
+            return true;
+        }
+        if (absentIds.getIfPresent(id) != null) {
+            return false;
+        }
+        BlogPostRepository repository = blogPostRepository.getObject();
+        if (id > ceiling(id, repository)) {
+            unallocated.increment();
+            return false;
+        }
+        if (repository.existsById(id)) {
+            found.increment();
+            ids.add(id);
+            return true;
+        }
+        absent.increment();
+        absentIds.put(id, Boolean.TRUE);
+        return false;
+    }
+
+    void add(Long id) {
+        ids.add(id);
+        idCeiling.accumulateAndGet(id, Math::max);
+        absentIds.invalidate(id);
+    }
+
+    // one thread reads the sequence when the ceiling is older than the negative TTL, the others use the old one
+    private long ceiling(long id, BlogPostRepository repository) {
+        long ceiling = idCeiling.get();
+        long readAt = ceilingReadAt.get();
+        long now = System.nanoTime();
+        if (id > ceiling && now - readAt > sequenceTtlNanos && ceilingReadAt.compareAndSet(readAt, now)) {
+            ceiling = readCeiling(repository);
+        }
+        return ceiling;
+    }
+
+    private long readCeiling(BlogPostRepository repository) {
+        long ceiling = idCeiling.accumulateAndGet(repository.findLastPostSequenceValue(), Math::max);
+        ceilingReadAt.set(System.nanoTime());
+        return ceiling;
+    }
+}
@@ -0,0 +1,22 @@
+package com.daalfa.blog.service.cache;
+
+import com.daalfa.blog.service.model.BlogPost;
+import jakarta.persistence.PostPersist;
+
+/**
+ * Entity listener adding persisted posts to {@link KnownPostIds}, whatever the code path that saved them.
+ * Hibernate creates it through Spring, which injects the {@link KnownPostIds} bean.
+ */
+public class KnownPostIdsListener {
+
+    private final KnownPostIds knownPostIds;
+
+    public KnownPostIdsListener(KnownPostIds knownPostIds) {
+        this.knownPostIds = knownPostIds;
+    }
+
+    @PostPersist
+    void onPersist(BlogPost post) {
+        knownPostIds.add(post.getId());
+    }
+}
@@ -0,0 +1,21 @@
+package com.daalfa.blog.service.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the post id existence bitmap.
+ *
+ * @param negativeTtl         time an id missing from the bitmap and from the database is answered 404
+ *                            without asking the database again; a post created elsewhere meanwhile is
+ *                            found once it expires
+ * @param negativeMaximumSize maximum number of such ids remembered
+ */
+@ConfigurationProperties("blog.cache.known-posts")
+public record KnownPostIdsProperties(
+        @DefaultValue("1s") Duration negativeTtl,
+        @DefaultValue("100000") long negativeMaximumSize
+) {
+}
@@ -0,0 +1,21 @@
+package com.daalfa.blog.service.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the post detail cache.
+ *
+ * @param enabled       whether {@code GET /posts/{id}} is served through the cache
+ * @param maximumWeight maximum number of cached posts plus their comments
+ * @param ttl           time an entry stays cached after it was loaded
+ */
+@ConfigurationProperties("blog.cache.posts")
+public record PostCacheProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100000") long maximumWeight,
+        @DefaultValue("10m") Duration ttl
+) {
+}
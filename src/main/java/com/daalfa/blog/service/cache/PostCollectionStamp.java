@@ -0,0 +1,47 @@
+package com.daalfa.blog.service.cache;
+
+import com.daalfa.blog.service.event.CommentCreatedEvent;
+import com.daalfa.blog.service.event.PostCreatedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modification stamp of the post collection, used as the HTTP validator of the post listing.
+ * <p>
+ * It is bumped after every committed post or comment, the only writes that change a summary.
+ * The stamp lives in memory, like the caches and the search index, so it is prefixed with the
+ * start time of this instance to never repeat a value handed out before a restart.
+ * <p>
+ * It only sees the writes of this process. The listing ETag therefore assumes this is the only process writing
+ * posts and comments: writes by another instance, the reactive variant or plain SQL on the same database do not
+ * advance it, and clients holding the old ETag keep getting 304 until this process writes.
+ */
+@Component
+public class PostCollectionStamp {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong modifications = new AtomicLong();
+
+    public String current() {
+        return epoch + "." + modifications.get();
+    }
+
+    /**
+     * Retires the current stamp, so pages tagged with it are sent again.
+     */
+    public void advance() {
+        modifications.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        advance();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        advance();
+    }
+}
@@ -0,0 +1,94 @@
+package com.daalfa.blog.service.cache;
+
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.event.CommentCreatedEvent;
+import com.daalfa.blog.service.event.PostCreatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of {@link BlogPostResponseWithCommentsDTO} keyed by post id.
+ * <p>
+ * Entries are weighted by their number of embedded comments and expire after the configured TTL.
+ * Writes invalidate the affected entry only after their transaction commits; a load that
+ * is still running at that moment is waited for and then discarded, so readers never see
+ * a comment list older than the last committed write.
+ */
+@Component
+@Slf4j
+public class PostDetailCache {
+
+    static final String CACHE_NAME = "posts";
+
+    private final Cache<Long, BlogPostResponseWithCommentsDTO> cache;
+
+    public PostDetailCache(PostCacheProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.enabled()) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.maximumWeight())
+                .weigher((Long id, BlogPostResponseWithCommentsDTO post) -> 1 + post.comments().size())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        // CaffeineCacheMetrics only reports load statistics for LoadingCache instances
+        TimeGauge.builder("cache.load.duration", cache, TimeUnit.NANOSECONDS, c -> c.stats().totalLoadTime())
+                .tag("cache", CACHE_NAME)
+                .description("The time the cache has spent loading new values")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.load", cache, c -> c.stats().loadSuccessCount())
+                .tags("cache", CACHE_NAME, "result", "success")
+                .description("The number of times cache lookup methods have successfully loaded a new value")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.load", cache, c -> c.stats().loadFailureCount())
+                .tags("cache", CACHE_NAME, "result", "failure")
+                .description("The number of times cache lookup methods failed to load a new value")
+                .register(meterRegistry);
+        log.info("Post cache enabled: {}", properties);
+    }
+
+    public BlogPostResponseWithCommentsDTO get(Long id, Function<Long, BlogPostResponseWithCommentsDTO> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        return cache.get(id, loader);
+    }
+
+    public BlogPostResponseWithCommentsDTO getIfPresent(Long id) {
+        return cache == null ? null : cache.getIfPresent(id);
+    }
+
+    public void invalidate(Long id) {
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        if (cache != null) {
+            var post = event.post();
+            cache.put(post.id(), new BlogPostResponseWithCommentsDTO(
+                    post.id(), post.title(), post.content(), List.of(), 0, null, 0L));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        invalidate(event.postId());
+    }
+}
@@ -0,0 +1,109 @@
+package com.daalfa.blog.service.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Set of non-negative ids as a bitmap split into chunks of {@value #CHUNK_IDS} ids (8 KiB each), the
+ * bitmap containers of a roaring bitmap. A chunk is allocated when the first id of its range is added.
+ * <p>
+ * Lookups and additions are lock-free; only allocating a chunk takes a lock, and publishes a new chunk
+ * directory. Ids from a sequence are dense, so a million of them take 16 chunks, about 128 KiB. Sparse
+ * ids cost up to a chunk each.
+ */
+final class PostIdBitmap {
+
+    static final int CHUNK_IDS = 1 << 16;
+
+    private static final int WORDS_PER_CHUNK = CHUNK_IDS / Long.SIZE;
+
+    // AtomicLongArray and its long[]: object headers, the array length and the reference between them
+    private static final long CHUNK_BYTES = WORDS_PER_CHUNK * 8L + 48;
+
+    private static final int MAX_CHUNKS = Integer.MAX_VALUE - 8;
+
+    private final ReentrantLock allocation = new ReentrantLock();
+    private final AtomicLong cardinality = new AtomicLong();
+    private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+    private volatile int allocatedChunks;
+
+    boolean contains(long id) {
+        if (id < 0) {
+            return false;
+        }
+        AtomicLongArray[] current = chunks;
+        long chunk = id / CHUNK_IDS;
+        if (chunk >= current.length || current[(int) chunk] == null) {
+            return false;
+        }
+        // a long shift only uses the low six bits of the id
+        return (current[(int) chunk].get(word(id)) & (1L << id)) != 0;
+    }
+
+    /**
+     * @return whether the id was added, false if it was already present
+     */
+    boolean add(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Negative id: " + id);
+        }
+        AtomicLongArray chunk = chunk(id / CHUNK_IDS);
+        int word = word(id);
+        long bit = 1L << id;
+        while (true) {
+            long current = chunk.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+            if (chunk.compareAndSet(word, current, current | bit)) {
+                cardinality.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    long cardinality() {
+        return cardinality.get();
+    }
+
+    /**
+     * Heap used by the chunks and the chunk directory, with compressed references.
+     */
+    long estimatedMemoryBytes() {
+        return allocatedChunks * CHUNK_BYTES + 16 + 4L * chunks.length;
+    }
+
+    private static int word(long id) {
+        return (int) (id % CHUNK_IDS) >>> 6;
+    }
+
+    private AtomicLongArray chunk(long index) {
+        if (index >= MAX_CHUNKS) {
+            throw new IllegalArgumentException("Id out of range: " + index * CHUNK_IDS);
+        }
+        AtomicLongArray[] current = chunks;
+        if (index < current.length && current[(int) index] != null) {
+            return current[(int) index];
+        }
+        allocation.lock();
+        try {
+            current = chunks;
+            if (index < current.length && current[(int) index] != null) {
+                return current[(int) index];
+            }
+            // chunks are never replaced, so a copy published through the volatile field is safe to read
+            AtomicLongArray[] grown = index < current.length
+                    ? current.clone()
+                    : Arrays.copyOf(current, (int) Math.min(Math.max(index + 1, current.length * 2L), MAX_CHUNKS));
+            AtomicLongArray chunk = new AtomicLongArray(WORDS_PER_CHUNK);
+            grown[(int) index] = chunk;
+            allocatedChunks++;
+            chunks = grown;
+            return chunk;
+        } finally {
+            allocation.unlock();
+        }
+    }
+}
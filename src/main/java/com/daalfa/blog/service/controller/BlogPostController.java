@@ -1,14 +1,37 @@
 package com.daalfa.blog.service.controller;
 
+import com.daalfa.blog.service.cache.HotPostResponses;
+import com.daalfa.blog.service.cache.PostCollectionStamp;
 import com.daalfa.blog.service.dto.*;
+import com.daalfa.blog.service.ingestion.CommentIngestionQueue;
+import com.daalfa.blog.service.ingestion.ReadYourWritesInterceptor;
 import com.daalfa.blog.service.service.BlogPostService;
+import com.daalfa.blog.service.stream.CommentStreamHub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 @RestController
@@ -16,22 +39,182 @@ import java.util.List;
 @Validated
 public class BlogPostController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private static final int MAX_PAGE_SIZE = 500;
+    // ranking keeps offset + limit hits in memory, so deep pages are bounded
+    private static final int MAX_SEARCH_OFFSET = 10_000;
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BlogPostService blogPostService;
+    private final ObjectMapper objectMapper;
+    private final PostCollectionStamp collectionStamp;
+    private final CommentIngestionQueue ingestionQueue;
+    private final CommentStreamHub commentStreamHub;
+    private final HotPostResponses hotPosts;
 
-    public BlogPostController(BlogPostService blogPostService) {
+    public BlogPostController(BlogPostService blogPostService,
+                              ObjectMapper objectMapper,
+                              PostCollectionStamp collectionStamp,
+                              CommentIngestionQueue ingestionQueue,
+                              CommentStreamHub commentStreamHub,
+                              HotPostResponses hotPosts) {
         this.blogPostService = blogPostService;
+        this.objectMapper = objectMapper;
+        this.collectionStamp = collectionStamp;
+        this.ingestionQueue = ingestionQueue;
+        this.commentStreamHub = commentStreamHub;
+        this.hotPosts = hotPosts;
     }
 
+    /**
+     * Post detail with an ETag derived from the post version. A matching {@code If-None-Match}
+     * is answered with 304 after a version lookup only, without loading or serializing the post.
+     * Hot posts are answered with their precomputed JSON, and their 304 needs no lookup either.
+     */
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public BlogPostResponseWithCommentsDTO getPostById(@PathVariable @Positive Long id) {
-        return blogPostService.getPostById(id);
+    public ResponseEntity<BlogPostResponseWithCommentsDTO> getPostById(@PathVariable @Positive Long id,
+                                                                       WebRequest request,
+                                                                       HttpServletResponse response)
+            throws IOException {
+        HotPostResponses.Response hot = hotPosts.get(id);
+        if (hot != null) {
+            // checkNotModified sets the ETag of the 200 as well
+            if (!request.checkNotModified(postEtag(id, hot.version()))) {
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setContentLength(hot.json().length);
+                response.getOutputStream().write(hot.json());
+            }
+            return null;
+        }
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(postEtag(id, blogPostService.getPostVersion(id)))) {
+            return null;
+        }
+        BlogPostResponseWithCommentsDTO post = blogPostService.getPostById(id);
+        hotPosts.offer(id);
+        return ResponseEntity.ok()
+                .eTag(postEtag(id, post.version()))
+                .body(post);
     }
 
+    /**
+     * Post detail with only the comma-separated {@code fields}, e.g. {@code fields=id,title}. Only the columns
+     * they need are read, and the comments only when {@code comments} or {@code nextCommentsCursor} is asked for.
+     */
+    @GetMapping(path = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getPostFieldsById(@PathVariable @Positive Long id,
+                                                                 @RequestParam Set<String> fields,
+                                                                 WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(postEtag(id, blogPostService.getPostVersion(id)))) {
+            return null;
+        }
+        PostFieldsDTO post = blogPostService.getPostById(id, fields);
+        return ResponseEntity.ok()
+                .eTag(postEtag(id, post.version()))
+                .body(post.fields());
+    }
+
+    /**
+     * Keyset-paginated listing. The cursor of the next page, if any, is returned in the
+     * {@value #NEXT_CURSOR_HEADER} header and as a {@code Link rel="next"}.
+     * Pages carry an ETag derived from the collection stamp, so a matching {@code If-None-Match}
+     * is answered with 304 without querying the database.
+     */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<BlogPostResponseSummaryDTO> getAllPosts() {
-        return blogPostService.getAllPosts();
+    public ResponseEntity<List<BlogPostResponseSummaryDTO>> getAllPosts(
+            @RequestParam(defaultValue = "0") @PositiveOrZero long after,
+            @RequestParam(defaultValue = "50") @Positive @Max(MAX_PAGE_SIZE) int limit,
+            UriComponentsBuilder uriBuilder,
+            WebRequest request) {
+        // read before the query, so a write racing with it can only make the ETag older than the page
+        if (request.checkNotModified("W/\"posts-" + collectionStamp.current() + "\"")) {
+            return null;
+        }
+        BlogPostSummaryPageDTO page = blogPostService.getAllPosts(after, limit);
+        return page(page.posts(), page.nextCursor(), limit, uriBuilder.path("/posts"));
+    }
+
+    /**
+     * Listing with only the comma-separated {@code fields} of each post, selecting only their columns.
+     * The {@code next} link keeps the selection.
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllPostFields(
+            @RequestParam(defaultValue = "0") @PositiveOrZero long after,
+            @RequestParam(defaultValue = "50") @Positive @Max(MAX_PAGE_SIZE) int limit,
+            @RequestParam Set<String> fields,
+            UriComponentsBuilder uriBuilder,
+            WebRequest request) {
+        if (request.checkNotModified("W/\"posts-" + collectionStamp.current() + "\"")) {
+            return null;
+        }
+        PostFieldsPageDTO page = blogPostService.getAllPosts(after, limit, fields);
+        return page(page.posts(), page.nextCursor(), limit,
+                uriBuilder.path("/posts").queryParam("fields", String.join(",", fields)));
+    }
+
+    /**
+     * Keyset-paginated comments of a post, oldest first, with the same cursor headers as the post listing.
+     */
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<List<CommentDTO>> getComments(
+            @PathVariable @Positive Long id,
+            @RequestParam(defaultValue = "0") @PositiveOrZero long after,
+            @RequestParam(defaultValue = "50") @Positive @Max(MAX_PAGE_SIZE) int limit,
+            UriComponentsBuilder uriBuilder) {
+        CommentPageDTO page = blogPostService.getComments(id, after, limit);
+        return page(page.comments(), page.nextCursor(), limit,
+                uriBuilder.path("/posts/{id}/comments").uriVariables(Map.of("id", id)));
+    }
+
+    /**
+     * Server-sent events of the comments created on a post from now on, named {@code comment}, with the
+     * comment id as event id. Pushed instead of polled, so watching a post costs no request per update.
+     */
+    @GetMapping(path = "/{id}/comments/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamComments(@PathVariable @Positive Long id) {
+        return commentStreamHub.subscribe(id);
+    }
+
+    /**
+     * Opt-in streaming listing ({@code Accept: application/x-ndjson}): one summary per line,
+     * written as rows come off the database cursor, without building the list in memory.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllPosts(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+        try (SequenceWriter writer = objectMapper.writerFor(BlogPostResponseSummaryDTO.class)
+                .withRootValueSeparator("\n")
+                .writeValues(response.getOutputStream())) {
+            blogPostService.streamAllPosts(post -> {
+                try {
+                    writer.write(post);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Full-text search over post titles, contents and comments, best match first.
+     * The number of matching posts is returned in the {@value #TOTAL_COUNT_HEADER} header.
+     * The offset is at most {@value #MAX_SEARCH_OFFSET}.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<PostSearchResultDTO>> searchPosts(
+            @RequestParam @NotBlank @Size(max = 256) String q,
+            @RequestParam(defaultValue = "0") @PositiveOrZero @Max(MAX_SEARCH_OFFSET) int offset,
+            @RequestParam(defaultValue = "20") @Positive @Max(MAX_PAGE_SIZE) int limit) {
+        PostSearchPageDTO page = blogPostService.searchPosts(q, offset, limit);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, Integer.toString(page.total()))
+                .body(page.results());
     }
 
     @PostMapping
@@ -40,11 +223,60 @@ public class BlogPostController {
         return blogPostService.createPost(post);
     }
 
+    /**
+     * Creates a comment, or with async ingestion queues it and answers 202 with its ticket in the
+     * {@value ReadYourWritesInterceptor#TICKET_HEADER} header. Sending that header on later reads
+     * makes them wait until the comment is written.
+     */
     @PostMapping("/{id}/comments")
-    @ResponseStatus(HttpStatus.CREATED)
-    public CommentDTO createComment(@PathVariable @Positive Long id, @Valid @RequestBody CommentDTO comment) {
-        return blogPostService.createComment(id, comment);
+    public ResponseEntity<CommentDTO> createComment(@PathVariable @Positive Long id,
+                                                    @Valid @RequestBody CommentDTO comment) {
+        if (ingestionQueue.isAsync()) {
+            long ticket = ingestionQueue.submit(id, comment);
+            return ResponseEntity.accepted()
+                    .header(ReadYourWritesInterceptor.TICKET_HEADER, Long.toString(ticket))
+                    .body(comment);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(blogPostService.createComment(id, comment));
     }
 
+    /**
+     * Adds many comments to one post. Every comment is validated on its own and the
+     * response holds one result per comment, in request order.
+     */
+    @PostMapping("/{id}/comments:batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CommentBatchResultDTO> createComments(
+            @PathVariable @Positive Long id,
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<CommentDTO> comments) {
+        return blogPostService.createComments(id, comments);
+    }
 
+    /**
+     * Adds comments to any number of posts, with one result per comment, in request order.
+     */
+    @PostMapping("/comments:batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CommentBatchResultDTO> createComments(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<CommentBatchItemDTO> comments) {
+        return blogPostService.createComments(comments);
+    }
+
+    private static String postEtag(Long id, long version) {
+        return "W/\"" + id + "-" + version + "\"";
+    }
+
+    private static <T> ResponseEntity<List<T>> page(List<T> items, Long nextCursor, int limit,
+                                                    UriComponentsBuilder pageUri) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            String next = pageUri.queryParam("after", nextCursor)
+                    .queryParam("limit", limit)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, nextCursor.toString())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(items);
+    }
 }
@@ -0,0 +1,45 @@
+package com.daalfa.blog.service.controller;
+
+import com.daalfa.blog.service.dto.BlogPostImportResultDTO;
+import com.daalfa.blog.service.service.BlogPostTransferService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bulk import and export of posts with their comments, as NDJSON streams.
+ */
+@RestController
+public class BlogPostTransferController {
+
+    private final BlogPostTransferService transferService;
+
+    public BlogPostTransferController(BlogPostTransferService transferService) {
+        this.transferService = transferService;
+    }
+
+    /**
+     * Imports one post per line, with its comments, reading the body as it arrives.
+     * The response counts the imported rows and lists the errors of rejected lines.
+     */
+    @PostMapping(path = "/posts:import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BlogPostImportResultDTO importPosts(InputStream body) throws IOException {
+        return transferService.importPosts(body);
+    }
+
+    /**
+     * Exports every post with its comments, one per line, in the format read by the import.
+     */
+    @GetMapping(path = "/posts:export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportPosts(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        transferService.exportPosts(response.getOutputStream());
+    }
+}
@@ -0,0 +1,49 @@
+package com.daalfa.blog.service.datasource;
+
+import com.daalfa.blog.service.cache.PostCollectionStamp;
+import com.daalfa.blog.service.cache.PostDetailCache;
+import com.daalfa.blog.service.event.CommentCreatedEvent;
+import com.daalfa.blog.service.event.PostCreatedEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invalidates a post in {@link PostDetailCache}, and the post listing's {@link PostCollectionStamp}, a second time
+ * once the replicas have caught up with a write.
+ * <p>
+ * The cache drops the post when the comment commits, but a reader may then load it from a replica that
+ * does not have the comment yet, and that copy would stay cached until the next write or the TTL.
+ * Likewise the stamp advances on commit, and a page read from a lagging replica right after goes out under the new
+ * stamp; without a second advance clients would revalidate that page with 304 until some other write.
+ */
+public class LaggingReplicaCacheInvalidator {
+
+    private final PostDetailCache postCache;
+    private final PostCollectionStamp collectionStamp;
+    private final Executor delayed;
+
+    public LaggingReplicaCacheInvalidator(PostDetailCache postCache,
+                                          PostCollectionStamp collectionStamp,
+                                          Duration maxReplicaLag) {
+        this.postCache = postCache;
+        this.collectionStamp = collectionStamp;
+        this.delayed = CompletableFuture.delayedExecutor(maxReplicaLag.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        delayed.execute(collectionStamp::advance);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        delayed.execute(() -> {
+            postCache.invalidate(event.postId());
+            collectionStamp.advance();
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package com.daalfa.blog.service.datasource;
+
+import com.daalfa.blog.service.cache.PostCollectionStamp;
+import com.daalfa.blog.service.cache.PostDetailCache;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-replica routing, enabled by configuring {@code blog.datasource.routing.replicas[0].url}.
+ * <p>
+ * Replaces the auto-configured pool with the {@code spring.datasource} primary, one pool per replica and a
+ * {@link ReplicaRoutingDataSource} between them. Liquibase and every connection outside a read-only
+ * transaction use the primary.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "blog.datasource.routing", name = "replicas[0].url")
+@Slf4j
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties primaryProperties,
+                                                             ReplicaRoutingProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (ReplicaRoutingProperties.Replica replica : properties.replicas()) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(primaryProperties.determineDriverClassName())
+                    .url(replica.url())
+                    .username(replica.username())
+                    .password(replica.password())
+                    .build();
+            pool.setPoolName("replica-" + replicas.size());
+            // unset (-1) until the primary starts, in which case both use Hikari's default
+            if (primaryDataSource.getMaximumPoolSize() > 0) {
+                pool.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            }
+            pool.setReadOnly(true);
+            pool.setAutoCommit(primaryDataSource.isAutoCommit());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(pool);
+        }
+        log.info("Routing read-only transactions to {} replicas", replicas.size());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Hibernate holds the connection of a session until it closes by default, which with open-in-view
+     * would keep the first routing decision of a request for all its transactions.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer connectionReleaseCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public LaggingReplicaCacheInvalidator laggingReplicaCacheInvalidator(PostDetailCache postCache,
+                                                                         PostCollectionStamp collectionStamp,
+                                                                         ReplicaRoutingProperties properties) {
+        return new LaggingReplicaCacheInvalidator(postCache, collectionStamp, properties.maxReplicaLag());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReplicaStickinessFilter> replicaStickinessFilter(ReplicaRoutingProperties properties) {
+        FilterRegistrationBean<ReplicaStickinessFilter> registration =
+                new FilterRegistrationBean<>(new ReplicaStickinessFilter(properties.maxReplicaLag()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
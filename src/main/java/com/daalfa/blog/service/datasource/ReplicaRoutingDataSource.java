@@ -0,0 +1,56 @@
+package com.daalfa.blog.service.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to the replicas, in turn, and everything else to the primary.
+ * <p>
+ * The transaction's read-only flag is only known once it has begun, so this must be wrapped in a
+ * {@code LazyConnectionDataSourceProxy} that fetches the physical connection on the first statement.
+ * Reads of a client that wrote within the maximum replica lag stay on the primary, see {@link RoutingContext}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<HikariDataSource> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                RoutingContext.markWrite();
+            }
+            return PRIMARY;
+        }
+        if (RoutingContext.isPrimaryOnly()) {
+            return PRIMARY;
+        }
+        return Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,32 @@
+package com.daalfa.blog.service.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas of the {@code spring.datasource} primary. Routing is enabled when at least one is configured.
+ *
+ * @param replicas      connection settings of each replica
+ * @param maxReplicaLag how far replicas may lag behind the primary; a client's reads stay on the primary for
+ *                      this long after its last write, and cached posts are invalidated again once it passed
+ */
+@ConfigurationProperties("blog.datasource.routing")
+public record ReplicaRoutingProperties(
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("2s") Duration maxReplicaLag
+) {
+
+    public boolean enabled() {
+        return !replicas.isEmpty();
+    }
+
+    public record Replica(
+            String url,
+            String username,
+            String password
+    ) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.daalfa.blog.service.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Keeps a client's reads on the primary right after its own writes.
+ * <p>
+ * The first write of a request sets the {@value #COOKIE} cookie to the time until which the replicas
+ * may not have it yet. Requests that send the cookie back before then read from the primary.
+ */
+public class ReplicaStickinessFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "blog-primary-until";
+
+    private final Duration maxReplicaLag;
+
+    public ReplicaStickinessFilter(Duration maxReplicaLag) {
+        this.maxReplicaLag = maxReplicaLag;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RoutingContext.open(isRecentWriter(request), () -> {
+            if (!response.isCommitted()) {
+                long until = System.currentTimeMillis() + maxReplicaLag.toMillis();
+                Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+                cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+                cookie.setMaxAge((int) Math.max(1, (maxReplicaLag.toMillis() + 999) / 1000));
+                cookie.setHttpOnly(true);
+                response.addCookie(cookie);
+            }
+        });
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RoutingContext.close();
+        }
+    }
+
+    private static boolean isRecentWriter(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
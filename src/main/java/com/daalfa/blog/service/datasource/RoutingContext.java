@@ -0,0 +1,44 @@
+package com.daalfa.blog.service.datasource;
+
+/**
+ * Routing state of the request handled by the current thread, maintained by {@link ReplicaStickinessFilter}.
+ * Threads outside a request, such as the search index catch-up at startup, have none and use the primary.
+ */
+final class RoutingContext {
+
+    private static final ThreadLocal<RoutingContext> CURRENT = new ThreadLocal<>();
+
+    private final Runnable onFirstWrite;
+    private boolean primaryOnly;
+    private boolean wrote;
+
+    private RoutingContext(boolean primaryOnly, Runnable onFirstWrite) {
+        this.primaryOnly = primaryOnly;
+        this.onFirstWrite = onFirstWrite;
+    }
+
+    static void open(boolean primaryOnly, Runnable onFirstWrite) {
+        CURRENT.set(new RoutingContext(primaryOnly, onFirstWrite));
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    static boolean isPrimaryOnly() {
+        RoutingContext context = CURRENT.get();
+        return context == null || context.primaryOnly;
+    }
+
+    /**
+     * Called when a read-write transaction gets a connection; later reads of the request stay on the primary.
+     */
+    static void markWrite() {
+        RoutingContext context = CURRENT.get();
+        if (context != null && !context.wrote) {
+            context.wrote = true;
+            context.primaryOnly = true;
+            context.onFirstWrite.run();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.daalfa.blog.service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * One line of an NDJSON import: a post with its comments. Other fields, such as the
+ * {@code id} written by the export, are ignored.
+ */
+public record BlogPostImportDTO(
+
+        @NotBlank(message = "Title cannot be empty")
+        @Size(min = 1, max = 64, message = "Title must be between 1 and 64 characters")
+        String title,
+
+        @NotBlank(message = "Content cannot be empty")
+        @Size(min = 1, max = 256, message = "Content must be between 1 and 256 characters")
+        String content,
+
+        List<@NotNull @Valid CommentDTO> comments
+) {
+    public BlogPostImportDTO {
+        comments = comments == null ? List.of() : comments;
+    }
+}
@@ -0,0 +1,17 @@
+package com.daalfa.blog.service.dto;
+
+import com.daalfa.blog.service.exception.ErrorDetails;
+
+import java.util.List;
+
+/**
+ * Outcome of an import: what was written, how many lines were rejected and the
+ * errors of the first ones.
+ */
+public record BlogPostImportResultDTO(
+        long posts,
+        long comments,
+        long rejected,
+        List<ErrorDetails> errors
+) {
+}
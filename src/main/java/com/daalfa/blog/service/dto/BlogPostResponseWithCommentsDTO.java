@@ -6,6 +6,9 @@ public record BlogPostResponseWithCommentsDTO(
         Long id,
         String title,
         String content,
-        List<CommentDTO> comments
+        List<CommentDTO> comments,
+        int totalComments,
+        Long nextCommentsCursor,
+        long version
 ) {
 }
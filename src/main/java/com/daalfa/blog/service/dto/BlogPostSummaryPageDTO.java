@@ -0,0 +1,9 @@
+package com.daalfa.blog.service.dto;
+
+import java.util.List;
+
+public record BlogPostSummaryPageDTO(
+        List<BlogPostResponseSummaryDTO> posts,
+        Long nextCursor
+) {
+}
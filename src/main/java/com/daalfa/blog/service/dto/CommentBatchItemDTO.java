@@ -0,0 +1,18 @@
+package com.daalfa.blog.service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public record CommentBatchItemDTO(
+
+        @NotNull(message = "Post id cannot be empty")
+        @Positive
+        Long postId,
+
+        @NotBlank(message = "Message cannot be empty")
+        @Size(min = 1, max = 256, message = "Message must be between 1 and 256 characters")
+        String message
+) {
+}
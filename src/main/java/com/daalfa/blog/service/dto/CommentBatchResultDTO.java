@@ -0,0 +1,17 @@
+package com.daalfa.blog.service.dto;
+
+import com.daalfa.blog.service.exception.ErrorDetails;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CommentBatchResultDTO(
+        int index,
+        int status,
+        Long postId,
+        CommentDTO comment,
+        String message,
+        List<ErrorDetails> errors
+) {
+}
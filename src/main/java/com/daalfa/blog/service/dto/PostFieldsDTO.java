@@ -0,0 +1,12 @@
+package com.daalfa.blog.service.dto;
+
+import java.util.Map;
+
+/**
+ * A post with only the properties requested with {@code fields=}, plus its version for the ETag.
+ */
+public record PostFieldsDTO(
+        Map<String, Object> fields,
+        long version
+) {
+}
@@ -0,0 +1,10 @@
+package com.daalfa.blog.service.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record PostFieldsPageDTO(
+        List<Map<String, Object>> posts,
+        Long nextCursor
+) {
+}
@@ -0,0 +1,9 @@
+package com.daalfa.blog.service.dto;
+
+import java.util.List;
+
+public record PostSearchPageDTO(
+        List<PostSearchResultDTO> results,
+        int total
+) {
+}
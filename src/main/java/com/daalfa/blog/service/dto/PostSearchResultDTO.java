@@ -0,0 +1,8 @@
+package com.daalfa.blog.service.dto;
+
+public record PostSearchResultDTO(
+        Long id,
+        String title,
+        double score
+) {
+}
@@ -0,0 +1,10 @@
+package com.daalfa.blog.service.event;
+
+import com.daalfa.blog.service.dto.CommentDTO;
+
+public record CommentCreatedEvent(
+        Long postId,
+        Long commentId,
+        CommentDTO comment
+) {
+}
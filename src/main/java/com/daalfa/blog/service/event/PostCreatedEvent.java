@@ -0,0 +1,8 @@
+package com.daalfa.blog.service.event;
+
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+
+public record PostCreatedEvent(
+        BlogPostResponseDTO post
+) {
+}
@@ -0,0 +1,7 @@
+package com.daalfa.blog.service.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,41 @@
+package com.daalfa.blog.service.exception;
+
+import com.daalfa.blog.service.ratelimit.TokenBucket;
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Warning log for errors caused by clients, which a scraping bot or a broken client can produce at
+ * request rate. Lines are let through by a token bucket; the others are only counted, and the count
+ * is appended to the next line logged. The message is only built for lines that are written.
+ */
+final class ExpectedErrorLog {
+
+    private final Logger log;
+    private final TokenBucket bucket;
+    private final LongAdder suppressed = new LongAdder();
+
+    ExpectedErrorLog(Logger log, ExpectedErrorLogProperties properties) {
+        this.log = log;
+        this.bucket = properties.throttled()
+                ? new TokenBucket(properties.burst(), properties.perSecond(), System.nanoTime())
+                : null;
+    }
+
+    void warn(String handler, Exception ex) {
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        if (bucket != null && bucket.tryConsume(System.nanoTime()) > 0) {
+            suppressed.increment();
+            return;
+        }
+        long skipped = suppressed.sumThenReset();
+        if (skipped > 0) {
+            log.warn("{}: {} ({} more expected errors not logged)", handler, ex.getMessage(), skipped);
+        } else {
+            log.warn("{}: {}", handler, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.daalfa.blog.service.exception;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the log of expected client errors (not found, validation, throttling).
+ *
+ * @param throttled whether the log is throttled; when not, every expected error is logged
+ * @param burst     number of errors logged back to back before throttling starts
+ * @param perSecond sustained rate of logged errors, the others are counted and reported with the next one logged
+ */
+@ConfigurationProperties("blog.logging.expected-errors")
+public record ExpectedErrorLogProperties(
+        @DefaultValue("true") boolean throttled,
+        @DefaultValue("20") int burst,
+        @DefaultValue("10") double perSecond
+) {
+}
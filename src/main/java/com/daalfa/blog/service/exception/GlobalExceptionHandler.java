@@ -2,56 +2,119 @@ package com.daalfa.blog.service.exception;
 
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.util.List;
 
+/**
+ * Maps exceptions to error responses. They all stem from client requests, so they are logged as
+ * warnings through a throttled {@link ExpectedErrorLog} rather than one error line each.
+ * <p>
+ * Also used by the reactive variant ({@code com.daalfa.blog.reactive}), for which the WebFlux
+ * counterparts of the Spring MVC request exceptions are mapped to the same responses.
+ */
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final ExpectedErrorLog expectedErrors;
+
+    public GlobalExceptionHandler(ExpectedErrorLogProperties properties) {
+        this.expectedErrors = new ExpectedErrorLog(log, properties);
+    }
+
     @ExceptionHandler(value = NotFoundException.class)
     @ResponseStatus(value = HttpStatus.NOT_FOUND)
     public ErrorMessage handleNotFoundException(NotFoundException ex) {
         int errorCode = HttpStatus.NOT_FOUND.value();
-        log.error("handleNotFoundException: {}", ex.getMessage());
+        expectedErrors.warn("handleNotFoundException", ex);
+        return new ErrorMessage(errorCode, ex.getMessage(), null);
+    }
+
+    @ExceptionHandler(value = BadRequestException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public ErrorMessage handleBadRequestException(BadRequestException ex) {
+        int errorCode = HttpStatus.BAD_REQUEST.value();
+        expectedErrors.warn("handleBadRequestException", ex);
         return new ErrorMessage(errorCode, ex.getMessage(), null);
     }
 
+    @ExceptionHandler(value = PreconditionFailedException.class)
+    @ResponseStatus(value = HttpStatus.PRECONDITION_FAILED)
+    public ErrorMessage handlePreconditionFailedException(PreconditionFailedException ex) {
+        int errorCode = HttpStatus.PRECONDITION_FAILED.value();
+        expectedErrors.warn("handlePreconditionFailedException", ex);
+        return new ErrorMessage(errorCode, ex.getMessage(), null);
+    }
+
+    @ExceptionHandler(value = TooManyRequestsException.class)
+    public ResponseEntity<ErrorMessage> handleTooManyRequestsException(TooManyRequestsException ex) {
+        int errorCode = HttpStatus.TOO_MANY_REQUESTS.value();
+        expectedErrors.warn("handleTooManyRequestsException", ex);
+        return ResponseEntity.status(errorCode)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(new ErrorMessage(errorCode, ex.getMessage(), null));
+    }
+
+    @ExceptionHandler(value = ServiceUnavailableException.class)
+    public ResponseEntity<ErrorMessage> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        int errorCode = HttpStatus.SERVICE_UNAVAILABLE.value();
+        expectedErrors.warn("handleServiceUnavailableException", ex);
+        return ResponseEntity.status(errorCode)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(new ErrorMessage(errorCode, ex.getMessage(), null));
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ErrorMessage handleInvalidPayloadException(HttpMessageNotReadableException ex) {
         int errorCode = HttpStatus.NOT_FOUND.value();
-        log.error("handleInvalidPayloadException: {}", ex.getMessage());
+        expectedErrors.warn("handleInvalidPayloadException", ex);
         return new ErrorMessage(errorCode, "Request body is missing or malformed", null);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(value = HttpStatus.BAD_REQUEST)
     public ErrorMessage handleValidationExceptions(MethodArgumentNotValidException ex) {
-        int errorCode = HttpStatus.BAD_REQUEST.value();
-        log.error("handleValidationExceptions: {}", ex.getMessage());
+        expectedErrors.warn("handleValidationExceptions", ex);
+        return validationFailed(ex.getBindingResult().getFieldErrors());
+    }
 
-        List<ErrorDetails> errors = ex.getBindingResult().getFieldErrors().stream()
-                .map(error -> new ErrorDetails(
-                        error.getField(),
-                        error.getRejectedValue(),
-                        error.getDefaultMessage()
-                ))
-                .toList();
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public ErrorMessage handleWebExchangeBindException(WebExchangeBindException ex) {
+        expectedErrors.warn("handleWebExchangeBindException", ex);
+        return validationFailed(ex.getFieldErrors());
+    }
 
-        return new ErrorMessage(errorCode, "Validation failed", errors);
+    // WebFlux reports unreadable bodies and unconvertible parameters with the same exception
+    @ExceptionHandler(ServerWebInputException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public ErrorMessage handleServerWebInputException(ServerWebInputException ex) {
+        int errorCode = HttpStatus.BAD_REQUEST.value();
+        expectedErrors.warn("handleServerWebInputException", ex);
+        boolean body = ex.getMethodParameter() != null
+                && ex.getMethodParameter().hasParameterAnnotation(RequestBody.class);
+        return new ErrorMessage(errorCode, body ? "Request body is missing or malformed" : ex.getReason(), null);
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
     @ResponseStatus(value = HttpStatus.BAD_REQUEST)
     public ErrorMessage handleConstraintViolationException(ConstraintViolationException ex) {
         int errorCode = HttpStatus.BAD_REQUEST.value();
-        log.error("handleConstraintViolationException: {}", ex.getMessage());
+        expectedErrors.warn("handleConstraintViolationException", ex);
 
         List<ErrorDetails> errors = ex.getConstraintViolations().stream()
                 .map(violation -> new ErrorDetails(
@@ -63,4 +126,16 @@ public class GlobalExceptionHandler {
 
         return new ErrorMessage(errorCode, "Validation failed", errors);
     }
+
+    private static ErrorMessage validationFailed(List<FieldError> fieldErrors) {
+        List<ErrorDetails> errors = fieldErrors.stream()
+                .map(error -> new ErrorDetails(
+                        error.getField(),
+                        error.getRejectedValue(),
+                        error.getDefaultMessage()
+                ))
+                .toList();
+
+        return new ErrorMessage(HttpStatus.BAD_REQUEST.value(), "Validation failed", errors);
+    }
 }
\ No newline at end of file
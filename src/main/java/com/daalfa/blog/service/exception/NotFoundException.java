@@ -1,7 +1,11 @@
 package com.daalfa.blog.service.exception;
 
+/**
+ * Thrown for a missing resource, which is an expected outcome rather than a bug: it is thrown at
+ * request rate by clients probing ids, so it captures no stack trace.
+ */
 public class NotFoundException extends RuntimeException {
     public NotFoundException(final String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,7 @@
+package com.daalfa.blog.service.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.daalfa.blog.service.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(final String message) {
+        super(message);
+    }
+}
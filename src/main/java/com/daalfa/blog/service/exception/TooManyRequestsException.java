@@ -0,0 +1,7 @@
+package com.daalfa.blog.service.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(final String message) {
+        super(message);
+    }
+}
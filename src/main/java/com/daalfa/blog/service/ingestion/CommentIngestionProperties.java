@@ -0,0 +1,36 @@
+package com.daalfa.blog.service.ingestion;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the comment ingestion.
+ *
+ * @param mode                  {@code sync} writes every comment in its own transaction and answers 201,
+ *                              {@code async} queues it, answers 202 and writes it with the next group commit
+ * @param queueCapacity         maximum number of queued comments, above which new ones are rejected with 429
+ * @param batchSize             maximum number of comments written in one transaction
+ * @param maxBatchDelay         time the writer waits for more comments before committing a partial batch
+ * @param drainTimeout          time given to the writer on shutdown to write the queued comments
+ * @param readYourWritesTimeout time a read waits for the comments of its client to be written
+ * @param maxAttempts           attempts to write a comment on its own once its batch failed, before giving it up
+ * @param retryBackoff          wait before the second attempt, doubled before each further one
+ */
+@ConfigurationProperties("blog.comments.ingestion")
+public record CommentIngestionProperties(
+        @DefaultValue("sync") Mode mode,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("5ms") Duration maxBatchDelay,
+        @DefaultValue("30s") Duration drainTimeout,
+        @DefaultValue("5s") Duration readYourWritesTimeout,
+        @DefaultValue("3") int maxAttempts,
+        @DefaultValue("100ms") Duration retryBackoff
+) {
+
+    public enum Mode {
+        SYNC, ASYNC
+    }
+}
@@ -0,0 +1,312 @@
+package com.daalfa.blog.service.ingestion;
+
+import com.daalfa.blog.service.cache.KnownPostIds;
+import com.daalfa.blog.service.dto.CommentBatchItemDTO;
+import com.daalfa.blog.service.dto.CommentBatchResultDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.exception.NotFoundException;
+import com.daalfa.blog.service.exception.PreconditionFailedException;
+import com.daalfa.blog.service.exception.ServiceUnavailableException;
+import com.daalfa.blog.service.exception.TooManyRequestsException;
+import com.daalfa.blog.service.service.BlogPostService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind queue for comments, used when {@code blog.comments.ingestion.mode=async}.
+ * <p>
+ * Submitted comments get a ticket, increasing in queue order, and wait in a bounded queue.
+ * A single writer thread drains the queue and writes up to {@code batchSize} comments per
+ * transaction through {@link BlogPostService#createComments(List)}, so cache invalidation,
+ * search indexing and counters work as for synchronous writes. A full queue rejects new
+ * comments, and on shutdown the writer drains what is left before the datasource closes.
+ * <p>
+ * Reads that must see a client's own comments wait with {@link #awaitProcessed} for its
+ * ticket, which is released once the batch holding it has been committed. When a batch fails,
+ * its comments are written again one by one, each in its own transaction and with a few attempts,
+ * so one bad comment or a short outage does not lose the others. Comments that still could not
+ * be written are remembered, and a read waiting for one of them fails instead of succeeding
+ * without it.
+ */
+@Component
+@Slf4j
+public class CommentIngestionQueue implements SmartLifecycle {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    private static final int MAX_FAILED_TICKETS = 10_000;
+
+    private final BlogPostService blogPostService;
+    private final KnownPostIds knownPostIds;
+    private final CommentIngestionProperties properties;
+    private final BlockingQueue<PendingComment> queue;
+
+    // orders ticket assignment with insertion, and signals readers waiting for a ticket
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition processed = lock.newCondition();
+    private long lastTicket;
+    private long processedTicket;
+    // the most recent tickets of comments given up, oldest first
+    private final NavigableSet<Long> failedTickets = new TreeSet<>();
+
+    private final Counter rejected;
+    private final Counter failed;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread writer;
+
+    public CommentIngestionQueue(BlogPostService blogPostService,
+                                 KnownPostIds knownPostIds,
+                                 CommentIngestionProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.blogPostService = blogPostService;
+        this.knownPostIds = knownPostIds;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.accepting = isAsync();
+
+        Gauge.builder("comments.ingestion.queue.size", queue, BlockingQueue::size)
+                .description("Comments waiting to be written")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("comments.ingestion.rejected")
+                .description("Comments rejected because the queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("comments.ingestion.failed")
+                .description("Queued comments that could not be written")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("comments.ingestion.batch.size")
+                .description("Comments written per transaction")
+                .register(meterRegistry);
+    }
+
+    public boolean isAsync() {
+        return properties.mode() == CommentIngestionProperties.Mode.ASYNC;
+    }
+
+    /**
+     * Validates that the post exists and queues the comment.
+     *
+     * @return the ticket of the comment, to be passed to {@link #awaitProcessed}
+     */
+    public long submit(Long postId, CommentDTO comment) {
+        if (!knownPostIds.exists(postId)) {
+            throw new NotFoundException("BlogPost not found");
+        }
+        lock.lock();
+        try {
+            if (!accepting) {
+                throw new ServiceUnavailableException("Comment ingestion is not accepting comments");
+            }
+            if (!queue.offer(new PendingComment(lastTicket + 1, postId, comment.message()))) {
+                rejected.increment();
+                throw new TooManyRequestsException("Too many comments waiting to be written");
+            }
+            return ++lastTicket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the comment with the given ticket, and every comment queued before it, has been processed.
+     *
+     * @return whether it was processed within the timeout
+     * @throws PreconditionFailedException if the comment could not be written
+     */
+    public boolean awaitProcessed(long ticket, Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        lock.lock();
+        try {
+            while (processedTicket < ticket && ticket <= lastTicket) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = processed.awaitNanos(remaining);
+            }
+            if (failedTickets.contains(ticket)) {
+                throw new PreconditionFailedException("Comment " + ticket + " could not be written");
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!isAsync()) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("comment-writer").daemon().start(this::drain);
+        log.info("Async comment ingestion started: {}", properties);
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join(properties.drainTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} queued comments were not written before shutdown", queue.size());
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Runs after the web server has stopped taking requests and before the datasource is closed.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<PendingComment> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingComment first = queue.poll(POLL_INTERVAL.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // waits up to maxBatchDelay for more comments, unless shutting down
+    private void fill(List<PendingComment> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + properties.maxBatchDelay().toNanos();
+        while (batch.size() < properties.batchSize()) {
+            queue.drainTo(batch, properties.batchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.batchSize() || remaining <= 0 || !running) {
+                return;
+            }
+            PendingComment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<PendingComment> batch) {
+        try {
+            recordResults(batch, createComments(batch));
+        } catch (RuntimeException e) {
+            log.warn("Could not write {} queued comments, retrying them one by one", batch.size(), e);
+            for (PendingComment comment : batch) {
+                writeAlone(comment);
+            }
+        } finally {
+            batchSizes.record(batch.size());
+            markProcessed(batch.getLast().ticket());
+        }
+    }
+
+    private void writeAlone(PendingComment comment) {
+        long backoff = properties.retryBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                recordResults(List.of(comment), createComments(List.of(comment)));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.maxAttempts()) {
+                    log.error("Could not write queued comment {} after {} attempts", comment.ticket(), attempt, e);
+                    markFailed(List.of(comment));
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                markFailed(List.of(comment));
+                return;
+            }
+            backoff *= 2;
+        }
+    }
+
+    private List<CommentBatchResultDTO> createComments(List<PendingComment> comments) {
+        return blogPostService.createComments(comments.stream()
+                .map(comment -> new CommentBatchItemDTO(comment.postId(), comment.message()))
+                .toList());
+    }
+
+    // comments rejected by the service, such as those of a post deleted meanwhile, are given up as well
+    private void recordResults(List<PendingComment> comments, List<CommentBatchResultDTO> results) {
+        List<PendingComment> notCreated = results.stream()
+                .filter(result -> result.status() != HttpStatus.CREATED.value())
+                .map(result -> comments.get(result.index()))
+                .toList();
+        if (!notCreated.isEmpty()) {
+            log.warn("{} of {} queued comments were not created", notCreated.size(), comments.size());
+            markFailed(notCreated);
+        }
+    }
+
+    private void markFailed(List<PendingComment> comments) {
+        failed.increment(comments.size());
+        lock.lock();
+        try {
+            comments.forEach(comment -> failedTickets.add(comment.ticket()));
+            while (failedTickets.size() > MAX_FAILED_TICKETS) {
+                failedTickets.pollFirst();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markProcessed(long ticket) {
+        lock.lock();
+        try {
+            processedTicket = ticket;
+            processed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record PendingComment(long ticket, Long postId, String message) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.daalfa.blog.service.ingestion;
+
+import com.daalfa.blog.service.exception.ServiceUnavailableException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Gives a client read-your-writes over queued comments: a read of the posts that carries the
+ * {@value #TICKET_HEADER} returned when the client posted a comment waits until that comment is written.
+ * If the comment could not be written the read fails with 412 Precondition Failed.
+ */
+@Component
+public class ReadYourWritesInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    public static final String TICKET_HEADER = "X-Comment-Ticket";
+
+    private final CommentIngestionQueue ingestionQueue;
+    private final CommentIngestionProperties properties;
+
+    public ReadYourWritesInterceptor(CommentIngestionQueue ingestionQueue, CommentIngestionProperties properties) {
+        this.ingestionQueue = ingestionQueue;
+        this.properties = properties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/posts", "/posts/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        String ticket = request.getHeader(TICKET_HEADER);
+        if (ticket == null || !HttpMethod.GET.matches(request.getMethod()) || !ingestionQueue.isAsync()) {
+            return true;
+        }
+        long value;
+        try {
+            value = Long.parseLong(ticket.trim());
+        } catch (NumberFormatException e) {
+            // not one of our tickets, nothing to wait for
+            return true;
+        }
+        if (!ingestionQueue.awaitProcessed(value, properties.readYourWritesTimeout())) {
+            throw new ServiceUnavailableException("Comment " + value + " has not been written yet");
+        }
+        return true;
+    }
+}
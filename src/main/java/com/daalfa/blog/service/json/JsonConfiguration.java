@@ -0,0 +1,32 @@
+package com.daalfa.blog.service.json;
+
+import com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ParameterizedTypeReference;
+
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+public class JsonConfiguration {
+
+    /**
+     * Writes the post detail, the post listing and comment pages. Converter beans are placed before
+     * the default ones, so it takes these types over from Jackson's converter. Set
+     * {@code blog.json.prebuilt-writers=false} to go back to it.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "blog.json.prebuilt-writers", havingValue = "true", matchIfMissing = true)
+    public PrebuiltJsonHttpMessageConverter prebuiltJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new PrebuiltJsonHttpMessageConverter(objectMapper,
+                BlogPostResponseWithCommentsDTO.class,
+                new ParameterizedTypeReference<List<BlogPostResponseSummaryDTO>>() {
+                }.getType(),
+                new ParameterizedTypeReference<List<CommentDTO>>() {
+                }.getType());
+    }
+}
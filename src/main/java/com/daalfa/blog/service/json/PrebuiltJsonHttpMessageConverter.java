@@ -0,0 +1,75 @@
+package com.daalfa.blog.service.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes a fixed set of response types as JSON with {@link ObjectWriter}s resolved once, at startup.
+ * <p>
+ * {@code MappingJackson2HttpMessageConverter} resolves the Java type, builds an {@code ObjectWriter}
+ * and looks up its root serializer on every write. For the few DTOs written on every read that is
+ * most of the garbage of a response, besides the JSON itself. The JSON is produced by the same
+ * {@code ObjectMapper}, so it is byte for byte the one Jackson's converter writes. Types are matched
+ * exactly, anything else is left to the other converters. The converter never reads.
+ */
+public class PrebuiltJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final Map<Type, ObjectWriter> writers = new HashMap<>();
+
+    public PrebuiltJsonHttpMessageConverter(ObjectMapper objectMapper, Type... types) {
+        super(MediaType.APPLICATION_JSON);
+        for (Type type : types) {
+            // the servlet container closes the response stream, not the converter
+            writers.put(type, objectMapper.writerFor(objectMapper.constructType(type))
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+        }
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(@Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return writers.containsKey(type != null ? type : clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return writers.containsKey(clazz);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        ObjectWriter writer = writers.get(type != null ? type : object.getClass());
+        writer.writeValue(outputMessage.getBody(), object);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("PrebuiltJsonHttpMessageConverter only writes");
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("PrebuiltJsonHttpMessageConverter only writes");
+    }
+}
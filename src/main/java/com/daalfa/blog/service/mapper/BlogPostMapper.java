@@ -3,23 +3,47 @@ package com.daalfa.blog.service.mapper;
 import com.daalfa.blog.service.dto.*;
 import com.daalfa.blog.service.model.BlogPost;
 import com.daalfa.blog.service.model.Comment;
+import com.daalfa.blog.service.repository.CommentText;
+import com.daalfa.blog.service.repository.PostDetailRow;
+import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+
+import java.util.List;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface BlogPostMapper {
 
-    BlogPostResponseWithCommentsDTO toBlogPostResponseWithCommentsDTO(BlogPost entity);
-
-    @Mapping(target = "comments", expression = "java(entity.getComments().size())")
-    BlogPostResponseSummaryDTO toBlogPostResponseSummaryDTO(BlogPost entity);
+    @Mapping(target = "comments", source = "comments")
+    @Mapping(target = "totalComments", source = "post.commentCount")
+    BlogPostResponseWithCommentsDTO toBlogPostResponseWithCommentsDTO(PostDetailRow post, List<CommentDTO> comments,
+                                                                      Long nextCommentsCursor);
 
     BlogPostResponseDTO toBlogPostResponseDTO(BlogPost entity);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "comments", ignore = true)
     BlogPost toBlogPostEntity(BlogPostRequestDTO dto);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "commentCount", expression = "java(dto.comments().size())")
+    BlogPost toBlogPostEntity(BlogPostImportDTO dto);
+
     CommentDTO toCommentDTO(Comment entity);
 
+    CommentDTO toCommentDTO(CommentText text);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "blogPost", ignore = true)
     Comment toCommentEntity(CommentDTO dto);
+
+    @AfterMapping
+    default void linkComments(@MappingTarget BlogPost post) {
+        post.getComments().forEach(comment -> comment.setBlogPost(post));
+    }
 }
@@ -0,0 +1,51 @@
+package com.daalfa.blog.service.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Feeds {@link RequestStatistics} from Hibernate: every prepared SQL statement, loaded entity
+ * and fetched collection is counted against the request running on the current thread.
+ */
+class HibernateRequestListener
+        implements StatementInspector, PostLoadEventListener, InitializeCollectionEventListener, Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, this);
+        registry.appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatistics.statementPrepared();
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestStatistics.entityLoaded();
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        RequestStatistics.collectionFetched();
+    }
+}
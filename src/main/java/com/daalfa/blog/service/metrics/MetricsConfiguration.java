@@ -0,0 +1,75 @@
+package com.daalfa.blog.service.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfiguration {
+
+    /**
+     * Records {@code @Timed} methods, such as the {@code BlogPostService} ones.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Counts statements, entity loads and collection fetches per request. A statement inspector
+     * set by an earlier customizer is kept and runs first; the integrators of an earlier provider are kept too.
+     * Either may be set as an instance, a class or a class name, as Hibernate accepts.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsCustomizer() {
+        HibernateRequestListener listener = new HibernateRequestListener();
+        return properties -> {
+            properties.merge(AvailableSettings.STATEMENT_INSPECTOR, listener, (existing, added) -> {
+                StatementInspector inspector =
+                        instance(AvailableSettings.STATEMENT_INSPECTOR, existing, StatementInspector.class);
+                return (StatementInspector) sql -> listener.inspect(inspector.inspect(sql));
+            });
+            properties.merge(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(listener),
+                    (existing, added) -> {
+                        IntegratorProvider provider =
+                                instance(JpaSettings.INTEGRATOR_PROVIDER, existing, IntegratorProvider.class);
+                        return (IntegratorProvider) () -> {
+                            List<Integrator> integrators = new ArrayList<>(provider.getIntegrators());
+                            integrators.add(listener);
+                            return integrators;
+                        };
+                    });
+        };
+    }
+
+    // resolved while the properties are customized, so a wrong setting fails at startup rather than per statement
+    private static <T> T instance(String setting, Object value, Class<T> type) {
+        if (type.isInstance(value)) {
+            return type.cast(value);
+        }
+        try {
+            Class<?> implementation = value instanceof Class<?> c
+                    ? c
+                    : ClassUtils.forName(value.toString().trim(), MetricsConfiguration.class.getClassLoader());
+            if (!type.isAssignableFrom(implementation)) {
+                throw new IllegalArgumentException(setting + " must be a " + type.getName() + ": " + value);
+            }
+            return type.cast(BeanUtils.instantiateClass(implementation));
+        } catch (ClassNotFoundException | LinkageError | BeanInstantiationException e) {
+            throw new IllegalArgumentException("Cannot instantiate " + setting + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.daalfa.blog.service.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the per-request database metrics.
+ *
+ * @param statementThreshold number of SQL statements above which a request is logged as a warning
+ */
+@ConfigurationProperties("blog.metrics.requests")
+public record RequestMetricsProperties(
+        @DefaultValue("20") int statementThreshold
+) {
+}
@@ -0,0 +1,61 @@
+package com.daalfa.blog.service.metrics;
+
+/**
+ * Hibernate activity of the HTTP request running on the current thread.
+ * <p>
+ * Counting is a no-op outside of a request started by {@link RequestStatisticsFilter}.
+ */
+final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int entitiesLoaded;
+    private int collectionsFetched;
+
+    private RequestStatistics() {
+    }
+
+    static RequestStatistics start() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static void statementPrepared() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entitiesLoaded++;
+        }
+    }
+
+    static void collectionFetched() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.collectionsFetched++;
+        }
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    int entitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    int collectionsFetched() {
+        return collectionsFetched;
+    }
+}
@@ -0,0 +1,68 @@
+package com.daalfa.blog.service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Publishes the Hibernate activity of every request, tagged like {@code http.server.requests},
+ * and logs the requests that run more SQL statements than the configured threshold.
+ */
+@Component
+@Slf4j
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final RequestMetricsProperties properties;
+
+    public RequestStatisticsFilter(MeterRegistry meterRegistry, RequestMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStatistics statistics = RequestStatistics.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestStatistics.end();
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+        summary("hibernate.request.statements", "SQL statements prepared per request", request, uri)
+                .record(statistics.statements());
+        summary("hibernate.request.entities.loaded", "Entities loaded per request", request, uri)
+                .record(statistics.entitiesLoaded());
+        summary("hibernate.request.collections.fetched", "Collections fetched per request", request, uri)
+                .record(statistics.collectionsFetched());
+
+        if (statistics.statements() > properties.statementThreshold()) {
+            log.warn("{} {} ran {} SQL statements (threshold {}), loaded {} entities and fetched {} collections",
+                    request.getMethod(), request.getRequestURI(), statistics.statements(),
+                    properties.statementThreshold(), statistics.entitiesLoaded(), statistics.collectionsFetched());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, HttpServletRequest request, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry);
+    }
+}
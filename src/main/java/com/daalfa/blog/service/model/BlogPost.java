@@ -1,5 +1,6 @@
 package com.daalfa.blog.service.model;
 
+import com.daalfa.blog.service.cache.KnownPostIdsListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,17 +10,26 @@ import java.util.List;
 
 @Entity
 @Table(name = "post")
+@EntityListeners(KnownPostIdsListener.class)
 @Data
 @NoArgsConstructor
 public class BlogPost {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
     private Long id;
 
     private String title;
 
     private String content;
 
+    // only ever changed with an atomic UPDATE, see BlogPostRepository#incrementCommentCount
+    @Column(name = "comment_count", updatable = false)
+    private int commentCount;
+
+    @Version
+    private long version;
+
     @OneToMany(mappedBy = "blogPost", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
 }
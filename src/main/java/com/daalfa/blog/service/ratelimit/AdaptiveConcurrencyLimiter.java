@@ -0,0 +1,98 @@
+package com.daalfa.blog.service.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Concurrency limit that follows latency, after the gradient algorithm of Netflix' concurrency-limits.
+ * <p>
+ * Every completed request feeds a short-term and a long-term average of its latency. While the short-term
+ * average stays within {@code tolerance} times the long-term baseline, the limit grows towards itself plus
+ * its square root (the queue it allows); above that it shrinks in proportion to the excess. Samples taken while
+ * fewer than half the permits were used say nothing about capacity and leave the limit alone.
+ * <p>
+ * The estimate is an immutable record swapped with compare-and-set, and permits are a counter, so the
+ * limiter takes no lock.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicReference<Estimate> estimate;
+
+    public AdaptiveConcurrencyLimiter(RateLimitProperties.Concurrency properties) {
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.tolerance = properties.tolerance();
+        this.estimate = new AtomicReference<>(new Estimate(properties.initialLimit(), 0, 0));
+    }
+
+    /**
+     * Takes a permit if fewer requests than the limit are running.
+     *
+     * @return the number of running requests including this one, or -1 if the limit is reached
+     */
+    public int tryAcquire() {
+        int limit = getLimit();
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Returns a permit and updates the limit with the request's latency.
+     *
+     * @param inflightAtStart what {@link #tryAcquire()} returned for the request
+     */
+    public void release(long latencyNanos, int inflightAtStart) {
+        inflight.decrementAndGet();
+        estimate.updateAndGet(current -> next(current, latencyNanos, inflightAtStart));
+    }
+
+    /**
+     * Returns a permit without a latency sample, for requests whose duration depends on the size of what they
+     * stream rather than on how loaded the server is.
+     */
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) estimate.get().limit();
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private Estimate next(Estimate current, double rtt, int inflightAtStart) {
+        double shortRtt = current.shortRtt() == 0 ? rtt : current.shortRtt() + (rtt - current.shortRtt()) / SHORT_WINDOW;
+        double longRtt = current.longRtt() == 0 ? rtt : current.longRtt() + (rtt - current.longRtt()) / LONG_WINDOW;
+        // a baseline far above current latency, say after a slow warm-up, would hide the next overload
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        if (inflightAtStart < current.limit() / 2) {
+            return new Estimate(current.limit(), shortRtt, longRtt);
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = current.limit() * gradient + Math.sqrt(current.limit());
+        double limit = current.limit() * (1 - SMOOTHING) + target * SMOOTHING;
+        return new Estimate(Math.max(minLimit, Math.min(maxLimit, limit)), shortRtt, longRtt);
+    }
+
+    private record Estimate(double limit, double shortRtt, double longRtt) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.daalfa.blog.service.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("blog.rate-limit.enabled")
+public class RateLimitConfiguration {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(RateLimitProperties properties) {
+        return new AdaptiveConcurrencyLimiter(properties.concurrency());
+    }
+
+    /**
+     * Runs right after the observation filter, so rejected requests still show in {@code http.server.requests}.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   AdaptiveConcurrencyLimiter limiter,
+                                                                   ObjectMapper objectMapper,
+                                                                   MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(properties, limiter, objectMapper, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
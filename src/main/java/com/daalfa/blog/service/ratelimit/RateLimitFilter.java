@@ -0,0 +1,147 @@
+package com.daalfa.blog.service.ratelimit;
+
+import com.daalfa.blog.service.exception.ErrorMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests to {@code /posts}, including {@code /posts:import} and {@code /posts:export}, before they reach
+ * a controller, a database connection or a queue.
+ * <p>
+ * Each client, by remote address, has a token bucket for reads and one for writes; an empty bucket answers
+ * 429 with the seconds until the next token in {@code Retry-After}. Requests within their rate then need
+ * a permit of the {@link AdaptiveConcurrencyLimiter}, and are answered 503 when it has none. Streams (NDJSON and
+ * server-sent events, either way) hold a permit too, but their duration is not a latency sample.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String PATH = "/posts";
+
+    private final RateLimitProperties properties;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, TokenBucket> readBuckets;
+    private final Cache<String, TokenBucket> writeBuckets;
+    private final Counter rateLimited;
+    private final Counter concurrencyLimited;
+
+    public RateLimitFilter(RateLimitProperties properties,
+                           AdaptiveConcurrencyLimiter limiter,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.readBuckets = buckets(properties.readCapacity(), properties.readPerSecond());
+        this.writeBuckets = buckets(properties.writeCapacity(), properties.writePerSecond());
+
+        this.rateLimited = Counter.builder("http.server.requests.rejected")
+                .tag("reason", "rate_limit")
+                .description("Requests rejected because their client exceeded its rate")
+                .register(meterRegistry);
+        this.concurrencyLimited = Counter.builder("http.server.requests.rejected")
+                .tag("reason", "concurrency_limit")
+                .description("Requests rejected because the concurrency limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit of concurrent requests")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                .description("Requests holding a concurrency permit")
+                .register(meterRegistry);
+    }
+
+    // a bucket unused for its full refill time is full again, so dropping it then loses nothing
+    private Cache<String, TokenBucket> buckets(int capacity, double perSecond) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(TokenBucket.refillNanos(capacity, perSecond), TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.equals(PATH) || path.startsWith(PATH + "/") || path.startsWith(PATH + ":"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+        long wait = takeToken(request, now);
+        if (wait > 0) {
+            rateLimited.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait, "Too many requests from this client");
+            return;
+        }
+
+        if (!properties.concurrency().enabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        int inflight = limiter.tryAcquire();
+        if (inflight < 0) {
+            concurrencyLimited.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 0, "Server is at its concurrency limit");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (isStream(request, response)) {
+                limiter.release();
+            } else {
+                limiter.release(System.nanoTime() - now, inflight);
+            }
+        }
+    }
+
+    // a stream lasts as long as its body takes to send, which would drag the limit down for every other request
+    private static boolean isStream(HttpServletRequest request, HttpServletResponse response) {
+        return isStream(request.getContentType()) || isStream(response.getContentType());
+    }
+
+    private static boolean isStream(String contentType) {
+        return contentType != null && (contentType.startsWith(MediaType.APPLICATION_NDJSON_VALUE)
+                || contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+
+    private long takeToken(HttpServletRequest request, long now) {
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        TokenBucket bucket = read
+                ? readBuckets.get(request.getRemoteAddr(),
+                        client -> new TokenBucket(properties.readCapacity(), properties.readPerSecond(), now))
+                : writeBuckets.get(request.getRemoteAddr(),
+                        client -> new TokenBucket(properties.writeCapacity(), properties.writePerSecond(), now));
+        return bucket.tryConsume(now);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long waitNanos, String message)
+            throws IOException {
+        log.debug("Rejected with {}: {}", status.value(), message);
+        long seconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorMessage(status.value(), message, null));
+    }
+}
@@ -0,0 +1,43 @@
+package com.daalfa.blog.service.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the rate limiting and load shedding in front of {@code /posts}.
+ *
+ * @param enabled        whether requests to {@code /posts} are limited at all
+ * @param readCapacity   burst of GET requests a client may send at once
+ * @param readPerSecond  sustained GET requests per second and client
+ * @param writeCapacity  burst of POST, PUT, PATCH and DELETE requests a client may send at once
+ * @param writePerSecond sustained write requests per second and client
+ * @param maxClients     clients whose buckets are kept; the least recently seen are dropped beyond that
+ * @param concurrency    adaptive limit of concurrent requests, shared by all clients
+ */
+@ConfigurationProperties("blog.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100") int readCapacity,
+        @DefaultValue("50") double readPerSecond,
+        @DefaultValue("20") int writeCapacity,
+        @DefaultValue("5") double writePerSecond,
+        @DefaultValue("100000") int maxClients,
+        @DefaultValue Concurrency concurrency
+) {
+
+    /**
+     * @param enabled      whether concurrent requests are limited
+     * @param initialLimit limit until latency samples move it
+     * @param minLimit     lowest limit, however high latency gets
+     * @param maxLimit     highest limit, best kept below the servlet container's thread count
+     * @param tolerance    how many times the baseline latency is tolerated before the limit is lowered
+     */
+    public record Concurrency(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("20") int initialLimit,
+            @DefaultValue("4") int minLimit,
+            @DefaultValue("200") int maxLimit,
+            @DefaultValue("2.0") double tolerance
+    ) {
+    }
+}
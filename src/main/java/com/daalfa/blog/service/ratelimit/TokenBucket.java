@@ -0,0 +1,46 @@
+package com.daalfa.blog.service.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single timestamp, the generic cell rate algorithm: the bucket is full again at
+ * {@code fullAt}, and a request is allowed while that is at most one bucket's worth of tokens away.
+ * Consuming a token is one compare-and-set, so concurrent requests of a client never block each other.
+ */
+public final class TokenBucket {
+
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, double perSecond, long now) {
+        this.interval = (long) (1_000_000_000L / perSecond);
+        this.tolerance = interval * (capacity - 1L);
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token if there is one.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next one
+     */
+    public long tryConsume(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long wait = current - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, Math.max(current, now) + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Time a bucket takes to refill completely, after which a fresh one is equivalent.
+     */
+    static long refillNanos(int capacity, double perSecond) {
+        return (long) (capacity * 1_000_000_000L / perSecond);
+    }
+}
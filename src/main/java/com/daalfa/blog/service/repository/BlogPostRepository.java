@@ -1,9 +1,112 @@
 package com.daalfa.blog.service.repository;
 
+import com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO;
 import com.daalfa.blog.service.model.BlogPost;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
-}
\ No newline at end of file
+public interface BlogPostRepository extends JpaRepository<BlogPost, Long>, PostColumnRepository {
+
+    /**
+     * Reads the next page of post summaries after the given id (keyset pagination),
+     * reading the denormalized comment count and loading no entities.
+     */
+    @Query("""
+            SELECT new com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO(
+                p.id, p.title, p.content, p.commentCount)
+            FROM BlogPost p
+            WHERE p.id > :after
+            ORDER BY p.id
+            """)
+    List<BlogPostResponseSummaryDTO> findSummariesAfter(@Param("after") long after, Limit limit);
+
+    /**
+     * Streams every post summary from a forward-only JDBC cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @Query("""
+            SELECT new com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO(
+                p.id, p.title, p.content, p.commentCount)
+            FROM BlogPost p
+            ORDER BY p.id
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    Stream<BlogPostResponseSummaryDTO> streamAllSummaries();
+
+    /**
+     * Reads a post with its first comments, oldest first, in one statement and without loading entities:
+     * one row per comment, or a single row without comment. The limit applies to comments.
+     */
+    @Query("""
+            SELECT new com.daalfa.blog.service.repository.PostDetailRow(
+                p.id, p.title, p.content, p.commentCount, p.version, c.id, c.message)
+            FROM BlogPost p LEFT JOIN p.comments c
+            WHERE p.id = :id
+            ORDER BY c.id
+            """)
+    List<PostDetailRow> findDetailRows(@Param("id") Long id, Limit limit);
+
+    /**
+     * Reads the next page of post ids after the given id, from the primary key index.
+     */
+    @Query("SELECT p.id FROM BlogPost p WHERE p.id > :after ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("after") long after, Limit limit);
+
+    /**
+     * Reads the last value {@code post_seq} handed out, without advancing it. Every post id, whether assigned by
+     * Hibernate's pooled optimizer or taken straight from the sequence, is at most that value.
+     */
+    @Query(value = "SELECT BASE_VALUE - INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'POST_SEQ'",
+            nativeQuery = true)
+    long findLastPostSequenceValue();
+
+    /**
+     * Reads only the version of a post, to validate cached representations without loading it.
+     */
+    @Query("SELECT p.version FROM BlogPost p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Atomically adds {@code delta} to the comment count of a post and bumps its version,
+     * holding its row lock until commit.
+     *
+     * @return the number of updated rows, 0 when the post does not exist
+     */
+    @Modifying
+    @Query("""
+            UPDATE BlogPost p SET p.commentCount = p.commentCount + :delta, p.version = p.version + 1
+            WHERE p.id = :id
+            """)
+    int incrementCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * Streams the text of every post with an id greater than the given one, for indexing.
+     */
+    @Query("SELECT p.id AS id, p.title AS title, p.content AS content FROM BlogPost p WHERE p.id > :after")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    Stream<PostText> streamTextsAfter(@Param("after") long after);
+
+    /**
+     * Streams every post joined with its comments, ordered by post then comment, from a
+     * forward-only JDBC cursor. Must be consumed inside a transaction and closed by the caller.
+     */
+    @Query("""
+            SELECT p.id AS id, p.title AS title, p.content AS content, c.message AS message
+            FROM BlogPost p LEFT JOIN p.comments c
+            ORDER BY p.id, c.id
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    Stream<PostExportRow> streamExportRows();
+}
@@ -1,9 +1,40 @@
 package com.daalfa.blog.service.repository;
 
 import com.daalfa.blog.service.model.Comment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Reads the next page of comments of a post after the given comment id (keyset pagination),
+     * as projections so the persistence context stays empty whatever the size of the post.
+     */
+    @Query("""
+            SELECT c.id AS id, c.blogPost.id AS postId, c.message AS message
+            FROM Comment c
+            WHERE c.blogPost.id = :postId AND c.id > :after
+            ORDER BY c.id
+            """)
+    List<CommentText> findPageByPostId(@Param("postId") Long postId, @Param("after") long after, Limit limit);
+
+    /**
+     * Streams the text of every comment with an id greater than the given one, for indexing.
+     */
+    @Query("""
+            SELECT c.id AS id, c.blogPost.id AS postId, c.message AS message
+            FROM Comment c WHERE c.id > :after
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    Stream<CommentText> streamTextsAfter(@Param("after") long after);
+}
@@ -0,0 +1,13 @@
+package com.daalfa.blog.service.repository;
+
+/**
+ * Searchable text of a comment.
+ */
+public interface CommentText {
+
+    Long getId();
+
+    Long getPostId();
+
+    String getMessage();
+}
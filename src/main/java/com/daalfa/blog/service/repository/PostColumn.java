@@ -0,0 +1,22 @@
+package com.daalfa.blog.service.repository;
+
+/**
+ * Columns of a post that {@link PostColumnRepository} can select one by one.
+ */
+public enum PostColumn {
+    ID("id"),
+    TITLE("title"),
+    CONTENT("content"),
+    COMMENT_COUNT("commentCount"),
+    VERSION("version");
+
+    private final String attribute;
+
+    PostColumn(String attribute) {
+        this.attribute = attribute;
+    }
+
+    String attribute() {
+        return attribute;
+    }
+}
@@ -0,0 +1,25 @@
+package com.daalfa.blog.service.repository;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Queries that select only the requested columns of posts, for responses trimmed with {@code fields=}.
+ * Tuple elements are aliased with the {@link PostColumn} names.
+ */
+public interface PostColumnRepository {
+
+    /**
+     * Reads the given columns of the posts after the given id (keyset pagination), ordered by id.
+     */
+    List<Tuple> findColumnsAfter(Set<PostColumn> columns, long after, Limit limit);
+
+    /**
+     * Reads the given columns of one post.
+     */
+    Optional<Tuple> findColumnsById(Set<PostColumn> columns, Long id);
+}
@@ -0,0 +1,41 @@
+package com.daalfa.blog.service.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class PostColumnRepositoryImpl implements PostColumnRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findColumnsAfter(Set<PostColumn> columns, long after, Limit limit) {
+        return entityManager.createQuery(
+                        "SELECT " + select(columns) + " FROM BlogPost p WHERE p.id > :after ORDER BY p.id", Tuple.class)
+                .setParameter("after", after)
+                .setMaxResults(limit.max())
+                .getResultList();
+    }
+
+    @Override
+    public Optional<Tuple> findColumnsById(Set<PostColumn> columns, Long id) {
+        return entityManager.createQuery("SELECT " + select(columns) + " FROM BlogPost p WHERE p.id = :id", Tuple.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    // the names come from the enum, never from the request
+    private static String select(Set<PostColumn> columns) {
+        return columns.stream()
+                .map(column -> "p." + column.attribute() + " AS " + column.name())
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,15 @@
+package com.daalfa.blog.service.repository;
+
+/**
+ * A post joined with one of its comments; {@code commentId} and {@code message} are null for a post without comments.
+ */
+public record PostDetailRow(
+        Long id,
+        String title,
+        String content,
+        int commentCount,
+        long version,
+        Long commentId,
+        String message
+) {
+}
@@ -0,0 +1,15 @@
+package com.daalfa.blog.service.repository;
+
+/**
+ * A post joined with one of its comments, {@code message} is null for a post without comments.
+ */
+public interface PostExportRow {
+
+    Long getId();
+
+    String getTitle();
+
+    String getContent();
+
+    String getMessage();
+}
@@ -0,0 +1,13 @@
+package com.daalfa.blog.service.repository;
+
+/**
+ * Searchable text of a post.
+ */
+public interface PostText {
+
+    Long getId();
+
+    String getTitle();
+
+    String getContent();
+}
@@ -0,0 +1,308 @@
+package com.daalfa.blog.service.search;
+
+import com.daalfa.blog.service.dto.PostSearchPageDTO;
+import com.daalfa.blog.service.dto.PostSearchResultDTO;
+import com.daalfa.blog.service.event.CommentCreatedEvent;
+import com.daalfa.blog.service.event.PostCreatedEvent;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.CommentRepository;
+import com.daalfa.blog.service.repository.CommentText;
+import com.daalfa.blog.service.repository.PostText;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process inverted index over post titles, post contents and comment messages.
+ * <p>
+ * Each term maps to the posts containing it with a weighted term frequency (title terms count
+ * {@value #TITLE_WEIGHT} times). Queries rank posts by the sum of {@code (1 + ln tf) * ln(1 + N / df)}
+ * over the query terms. The index is built before the web server starts, from the repositories or
+ * from a snapshot plus the rows created after it, and is then updated after each committed write.
+ */
+@Component
+@Slf4j
+public class PostSearchIndex implements SmartInitializingSingleton, DisposableBean {
+
+    static final int TITLE_WEIGHT = 3;
+
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int MIN_TERM_LENGTH = 2;
+
+    // rough heap cost of the data structures, used for the memory estimate
+    private static final long TERM_OVERHEAD_BYTES = 160;
+    private static final long POSTING_BYTES = 64;
+    private static final long DOCUMENT_OVERHEAD_BYTES = 96;
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Long, Integer>> postings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String> titles = new ConcurrentHashMap<>();
+    private final AtomicLong postingCount = new AtomicLong();
+    private final AtomicLong textBytes = new AtomicLong();
+    private final AtomicLong maxPostId = new AtomicLong();
+    private final AtomicLong maxCommentId = new AtomicLong();
+
+    private final BlogPostRepository blogPostRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchProperties properties;
+    private final Timer queryTimer;
+
+    public PostSearchIndex(BlogPostRepository blogPostRepository,
+                           CommentRepository commentRepository,
+                           PlatformTransactionManager transactionManager,
+                           SearchProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.blogPostRepository = blogPostRepository;
+        this.commentRepository = commentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = properties;
+
+        this.queryTimer = Timer.builder("search.query")
+                .description("Latency of post search queries")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("search.index.documents", titles, Map::size)
+                .description("Number of indexed posts")
+                .register(meterRegistry);
+        Gauge.builder("search.index.terms", postings, Map::size)
+                .description("Number of distinct indexed terms")
+                .register(meterRegistry);
+        Gauge.builder("search.index.postings", postingCount, AtomicLong::get)
+                .description("Number of (term, post) pairs")
+                .register(meterRegistry);
+        Gauge.builder("search.index.memory", this, PostSearchIndex::estimatedMemoryBytes)
+                .description("Estimated heap used by the index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        if (properties.snapshotPath() != null && Files.exists(properties.snapshotPath())) {
+            loadSnapshot(properties.snapshotPath());
+        }
+        catchUp();
+        log.info("Search index built in {} ms: {} posts, {} terms, ~{} KiB",
+                (System.nanoTime() - start) / 1_000_000, titles.size(), postings.size(), estimatedMemoryBytes() / 1024);
+    }
+
+    @Override
+    public void destroy() {
+        if (properties.snapshotPath() != null) {
+            writeSnapshot(properties.snapshotPath());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        var post = event.post();
+        indexPost(post.id(), post.title(), post.content());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        indexComment(event.commentId(), event.postId(), event.comment().message());
+    }
+
+    public PostSearchPageDTO search(String query, int offset, int limit) {
+        return queryTimer.record(() -> rank(query, offset, limit));
+    }
+
+    public long estimatedMemoryBytes() {
+        return postings.size() * TERM_OVERHEAD_BYTES
+                + postingCount.get() * POSTING_BYTES
+                + titles.size() * DOCUMENT_OVERHEAD_BYTES
+                + textBytes.get();
+    }
+
+    void indexPost(Long id, String title, String content) {
+        title = Objects.requireNonNullElse(title, "");
+        if (titles.putIfAbsent(id, title) != null) {
+            return;
+        }
+        textBytes.addAndGet(title.length());
+        maxPostId.accumulateAndGet(id, Math::max);
+        addTerms(id, title, TITLE_WEIGHT);
+        addTerms(id, content, 1);
+    }
+
+    void indexComment(Long id, Long postId, String message) {
+        if (id != null) {
+            maxCommentId.accumulateAndGet(id, Math::max);
+        }
+        addTerms(postId, message, 1);
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return SEPARATOR.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(token -> token.length() >= MIN_TERM_LENGTH)
+                .toList();
+    }
+
+    private void addTerms(Long postId, String text, int weight) {
+        for (String term : tokenize(text)) {
+            ConcurrentHashMap<Long, Integer> docs = postings.computeIfAbsent(term, t -> {
+                textBytes.addAndGet(t.length());
+                return new ConcurrentHashMap<>();
+            });
+            // weights are positive, so getting back exactly the weight means the post was new for this term
+            if (docs.merge(postId, weight, Integer::sum) == weight) {
+                postingCount.incrementAndGet();
+            }
+        }
+    }
+
+    private PostSearchPageDTO rank(String query, int offset, int limit) {
+        int documents = Math.max(titles.size(), 1);
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs == null || docs.isEmpty()) {
+                continue;
+            }
+            double idf = Math.log(1 + (double) documents / docs.size());
+            docs.forEach((postId, tf) -> scores.merge(postId, (1 + Math.log(tf)) * idf, Double::sum));
+        }
+
+        // keep only the best offset + limit hits instead of sorting every match
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+        // in long, so a caller's large offset cannot overflow; no more hits than matches are ever kept
+        int wanted = (int) Math.min((long) offset + limit, scores.size());
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Math.min(wanted, 1024) + 1, ranking);
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            top.add(score);
+            if (top.size() > wanted) {
+                top.poll();
+            }
+        }
+
+        List<Map.Entry<Long, Double>> best = new ArrayList<>(top);
+        best.sort(ranking.reversed());
+        List<PostSearchResultDTO> results = best.stream()
+                .skip(offset)
+                .map(hit -> new PostSearchResultDTO(hit.getKey(), titles.get(hit.getKey()), hit.getValue()))
+                .toList();
+        return new PostSearchPageDTO(results, scores.size());
+    }
+
+    private void catchUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<PostText> posts = blogPostRepository.streamTextsAfter(maxPostId.get())) {
+                posts.forEach(post -> indexPost(post.getId(), post.getTitle(), post.getContent()));
+            }
+            try (Stream<CommentText> comments = commentRepository.streamTextsAfter(maxCommentId.get())) {
+                comments.forEach(comment -> indexComment(comment.getId(), comment.getPostId(), comment.getMessage()));
+            }
+        });
+    }
+
+    void writeSnapshot(Path path) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(maxPostId.get());
+                out.writeLong(maxCommentId.get());
+
+                out.writeInt(titles.size());
+                for (Map.Entry<Long, String> title : titles.entrySet()) {
+                    out.writeLong(title.getKey());
+                    out.writeUTF(title.getValue());
+                }
+
+                out.writeInt(postings.size());
+                for (Map.Entry<String, ConcurrentHashMap<Long, Integer>> term : postings.entrySet()) {
+                    Map<Long, Integer> docs = Map.copyOf(term.getValue());
+                    out.writeUTF(term.getKey());
+                    out.writeInt(docs.size());
+                    for (Map.Entry<Long, Integer> doc : docs.entrySet()) {
+                        out.writeLong(doc.getKey());
+                        out.writeInt(doc.getValue());
+                    }
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Search index snapshot written to {}", path);
+        } catch (IOException e) {
+            log.warn("Could not write search index snapshot to {}", path, e);
+        }
+    }
+
+    void loadSnapshot(Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path))))) {
+            if (in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring search index snapshot {} with an unknown version", path);
+                return;
+            }
+            long snapshotMaxPostId = in.readLong();
+            long snapshotMaxCommentId = in.readLong();
+
+            int documents = in.readInt();
+            for (int i = 0; i < documents; i++) {
+                long id = in.readLong();
+                String title = in.readUTF();
+                titles.put(id, title);
+                textBytes.addAndGet(title.length());
+            }
+
+            int terms = in.readInt();
+            for (int i = 0; i < terms; i++) {
+                String term = in.readUTF();
+                int size = in.readInt();
+                ConcurrentHashMap<Long, Integer> docs = new ConcurrentHashMap<>(size);
+                for (int j = 0; j < size; j++) {
+                    docs.put(in.readLong(), in.readInt());
+                }
+                postings.put(term, docs);
+                postingCount.addAndGet(size);
+                textBytes.addAndGet(term.length());
+            }
+
+            maxPostId.set(snapshotMaxPostId);
+            maxCommentId.set(snapshotMaxCommentId);
+            log.info("Search index snapshot loaded from {}", path);
+        } catch (IOException e) {
+            log.warn("Could not read search index snapshot {}, rebuilding", path, e);
+            clear();
+        }
+    }
+
+    private void clear() {
+        postings.clear();
+        titles.clear();
+        postingCount.set(0);
+        textBytes.set(0);
+        maxPostId.set(0);
+        maxCommentId.set(0);
+    }
+}
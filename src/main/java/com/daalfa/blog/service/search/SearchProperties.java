@@ -0,0 +1,17 @@
+package com.daalfa.blog.service.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the post search index.
+ *
+ * @param snapshotPath optional file the index is written to on shutdown and read from on startup,
+ *                     so only posts and comments created since the snapshot are indexed again
+ */
+@ConfigurationProperties("blog.search")
+public record SearchProperties(
+        Path snapshotPath
+) {
+}
@@ -1,66 +1,405 @@
 package com.daalfa.blog.service.service;
 
+import com.daalfa.blog.service.cache.KnownPostIds;
+import com.daalfa.blog.service.cache.PostDetailCache;
 import com.daalfa.blog.service.dto.*;
+import com.daalfa.blog.service.event.CommentCreatedEvent;
+import com.daalfa.blog.service.event.PostCreatedEvent;
+import com.daalfa.blog.service.exception.BadRequestException;
+import com.daalfa.blog.service.exception.ErrorDetails;
 import com.daalfa.blog.service.exception.NotFoundException;
 import com.daalfa.blog.service.mapper.BlogPostMapper;
 import com.daalfa.blog.service.model.BlogPost;
 import com.daalfa.blog.service.model.Comment;
 import com.daalfa.blog.service.repository.BlogPostRepository;
 import com.daalfa.blog.service.repository.CommentRepository;
-import jakarta.transaction.Transactional;
+import com.daalfa.blog.service.repository.CommentText;
+import com.daalfa.blog.service.repository.PostColumn;
+import com.daalfa.blog.service.repository.PostDetailRow;
+import com.daalfa.blog.service.search.PostSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.Tuple;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
+@Timed(value = "blog.service", description = "Time spent in BlogPostService methods", histogram = true)
 public class BlogPostService {
 
+    /**
+     * Number of comments embedded in the post detail, the rest is read page by page.
+     */
+    static final int EMBEDDED_COMMENTS = 20;
+
+    /**
+     * Properties of a listed post that {@code fields=} can select, in response order, with the column each reads.
+     */
+    private static final Map<String, PostColumn> SUMMARY_FIELDS = new LinkedHashMap<>();
+
+    /**
+     * Properties of the post detail that {@code fields=} can select; the comment page has no column.
+     */
+    private static final Map<String, PostColumn> DETAIL_FIELDS = new LinkedHashMap<>();
+
+    static {
+        SUMMARY_FIELDS.put("id", PostColumn.ID);
+        SUMMARY_FIELDS.put("title", PostColumn.TITLE);
+        SUMMARY_FIELDS.put("content", PostColumn.CONTENT);
+        SUMMARY_FIELDS.put("comments", PostColumn.COMMENT_COUNT);
+
+        DETAIL_FIELDS.put("id", PostColumn.ID);
+        DETAIL_FIELDS.put("title", PostColumn.TITLE);
+        DETAIL_FIELDS.put("content", PostColumn.CONTENT);
+        DETAIL_FIELDS.put("comments", null);
+        DETAIL_FIELDS.put("totalComments", PostColumn.COMMENT_COUNT);
+        DETAIL_FIELDS.put("nextCommentsCursor", null);
+        DETAIL_FIELDS.put("version", PostColumn.VERSION);
+    }
+
     private final BlogPostRepository blogPostRepository;
     private final CommentRepository commentRepository;
     private final BlogPostMapper mapper;
+    private final PostDetailCache postCache;
+    private final KnownPostIds knownPostIds;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final PostSearchIndex searchIndex;
+    private final TransactionTemplate readOnlyTransaction;
 
     public BlogPostService(BlogPostRepository blogPostRepository,
                            CommentRepository commentRepository,
-                           BlogPostMapper mapper) {
+                           BlogPostMapper mapper,
+                           PostDetailCache postCache,
+                           KnownPostIds knownPostIds,
+                           ApplicationEventPublisher eventPublisher,
+                           Validator validator,
+                           PostSearchIndex searchIndex,
+                           PlatformTransactionManager transactionManager) {
         this.blogPostRepository = blogPostRepository;
         this.commentRepository = commentRepository;
         this.mapper = mapper;
+        this.postCache = postCache;
+        this.knownPostIds = knownPostIds;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.searchIndex = searchIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     public BlogPostResponseWithCommentsDTO getPostById(Long id) {
-        log.info("Get post by id: {}", id);
-        return blogPostRepository.findById(id)
-                .map(mapper::toBlogPostResponseWithCommentsDTO)
-                .orElseThrow(() -> new NotFoundException("BlogPost not found"));
+        log.debug("Get post by id: {}", id);
+        requireKnownPost(id);
+        return postCache.get(id, this::loadPostById);
     }
 
-    public List<BlogPostResponseSummaryDTO> getAllPosts() {
-        log.info("Get all posts");
-        return blogPostRepository.findAll().stream()
-                .map(mapper::toBlogPostResponseSummaryDTO)
+    /**
+     * The post detail read from the database, bypassing {@link PostDetailCache}, which may hold a copy a
+     * reader loaded from a lagging replica. Outside a request the read goes to the primary.
+     */
+    public BlogPostResponseWithCommentsDTO getPostByIdUncached(Long id) {
+        log.debug("Get post by id, uncached: {}", id);
+        return loadPostById(id);
+    }
+
+    // a read-only transaction of its own rather than on getPostById, so cache hits do not start one;
+    // the post and its first comments come from one statement, one row per comment
+    private BlogPostResponseWithCommentsDTO loadPostById(Long id) {
+        // fetch one extra comment to know whether there is a next page without a count query
+        List<PostDetailRow> rows = readOnlyTransaction.execute(status ->
+                blogPostRepository.findDetailRows(id, Limit.of(EMBEDDED_COMMENTS + 1)));
+        if (rows.isEmpty()) {
+            throw new NotFoundException("BlogPost not found");
+        }
+
+        Long nextCursor = rows.size() > EMBEDDED_COMMENTS ? rows.get(EMBEDDED_COMMENTS - 1).commentId() : null;
+        List<CommentDTO> comments = rows.stream()
+                .filter(row -> row.commentId() != null)
+                .limit(EMBEDDED_COMMENTS)
+                .map(row -> new CommentDTO(row.message()))
                 .toList();
+        return mapper.toBlogPostResponseWithCommentsDTO(rows.getFirst(), comments, nextCursor);
+    }
+
+    /**
+     * The post detail with only the given properties. A cached post is trimmed; otherwise only the
+     * columns of the requested properties are read, and the comments only if they are requested.
+     */
+    public PostFieldsDTO getPostById(Long id, Set<String> fields) {
+        log.debug("Get post by id: {}, fields: {}", id, fields);
+        requireKnownFields(fields, DETAIL_FIELDS);
+        requireKnownPost(id);
+        BlogPostResponseWithCommentsDTO cached = postCache.getIfPresent(id);
+        if (cached != null) {
+            return new PostFieldsDTO(selectFields(fields, DETAIL_FIELDS, field -> detailValue(cached, field)),
+                    cached.version());
+        }
+        return readOnlyTransaction.execute(status -> {
+            // the version is always read, for the ETag
+            Set<PostColumn> columns = columns(fields, DETAIL_FIELDS);
+            columns.add(PostColumn.VERSION);
+            Tuple post = blogPostRepository.findColumnsById(columns, id)
+                    .orElseThrow(() -> new NotFoundException("BlogPost not found"));
+            CommentPageDTO comments = fields.contains("comments") || fields.contains("nextCommentsCursor")
+                    ? findComments(id, 0L, EMBEDDED_COMMENTS)
+                    : null;
+            return new PostFieldsDTO(selectFields(fields, DETAIL_FIELDS, field -> switch (field) {
+                case "comments" -> comments.comments();
+                case "nextCommentsCursor" -> comments.nextCursor();
+                default -> post.get(DETAIL_FIELDS.get(field).name());
+            }), post.get(PostColumn.VERSION.name(), Long.class));
+        });
+    }
+
+    /**
+     * Returns the current version of a post, from the cache when it holds the post and
+     * otherwise with a primary key lookup that loads neither the post nor its comments.
+     */
+    public long getPostVersion(Long id) {
+        requireKnownPost(id);
+        BlogPostResponseWithCommentsDTO cached = postCache.getIfPresent(id);
+        if (cached != null) {
+            return cached.version();
+        }
+        return blogPostRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("BlogPost not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public CommentPageDTO getComments(Long id, long after, int limit) {
+        log.debug("Get comments of post: {} after: {}, limit: {}", id, after, limit);
+        requireKnownPost(id);
+        CommentPageDTO page = findComments(id, after, limit);
+        if (page.comments().isEmpty() && !blogPostRepository.existsById(id)) {
+            throw new NotFoundException("BlogPost not found");
+        }
+        return page;
+    }
+
+    private CommentPageDTO findComments(Long postId, long after, int limit) {
+        // fetch one extra row to know whether there is a next page without a count query
+        List<CommentText> comments = commentRepository.findPageByPostId(postId, after, Limit.of(limit + 1));
+
+        Long nextCursor = comments.size() > limit ? comments.get(limit - 1).getId() : null;
+        return new CommentPageDTO(comments.stream()
+                .limit(limit)
+                .map(mapper::toCommentDTO)
+                .toList(), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public BlogPostSummaryPageDTO getAllPosts(long after, int limit) {
+        log.debug("Get all posts after: {}, limit: {}", after, limit);
+        // fetch one extra row to know whether there is a next page without a count query
+        List<BlogPostResponseSummaryDTO> posts =
+                blogPostRepository.findSummariesAfter(after, Limit.of(limit + 1));
+
+        if (posts.size() <= limit) {
+            return new BlogPostSummaryPageDTO(posts, null);
+        }
+        List<BlogPostResponseSummaryDTO> page = posts.subList(0, limit);
+        return new BlogPostSummaryPageDTO(List.copyOf(page), page.get(limit - 1).id());
+    }
+
+    /**
+     * A listing page with only the given properties, selecting only their columns.
+     */
+    @Transactional(readOnly = true)
+    public PostFieldsPageDTO getAllPosts(long after, int limit, Set<String> fields) {
+        log.debug("Get all posts after: {}, limit: {}, fields: {}", after, limit, fields);
+        requireKnownFields(fields, SUMMARY_FIELDS);
+        // the id is always read, for the cursor
+        Set<PostColumn> columns = columns(fields, SUMMARY_FIELDS);
+        columns.add(PostColumn.ID);
+        List<Tuple> posts = blogPostRepository.findColumnsAfter(columns, after, Limit.of(limit + 1));
+
+        Long nextCursor = posts.size() > limit ? posts.get(limit - 1).get(PostColumn.ID.name(), Long.class) : null;
+        return new PostFieldsPageDTO(posts.stream()
+                .limit(limit)
+                .map(post -> selectFields(fields, SUMMARY_FIELDS, field -> post.get(SUMMARY_FIELDS.get(field).name())))
+                .toList(), nextCursor);
+    }
+
+    public PostSearchPageDTO searchPosts(String query, int offset, int limit) {
+        log.debug("Search posts: {}, offset: {}, limit: {}", query, offset, limit);
+        return searchIndex.search(query, offset, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllPosts(Consumer<BlogPostResponseSummaryDTO> consumer) {
+        log.debug("Stream all posts");
+        try (Stream<BlogPostResponseSummaryDTO> posts = blogPostRepository.streamAllSummaries()) {
+            posts.forEach(consumer);
+        }
     }
 
     public BlogPostResponseDTO createPost(BlogPostRequestDTO post) {
-        log.info("Create post: {}", post);
-        return mapper.toBlogPostResponseDTO(
+        log.debug("Create post: {}", post.title());
+        BlogPostResponseDTO created = mapper.toBlogPostResponseDTO(
                 blogPostRepository.save(mapper.toBlogPostEntity(post))
         );
+        eventPublisher.publishEvent(new PostCreatedEvent(created));
+        return created;
     }
 
     @Transactional
     public CommentDTO createComment(Long id, CommentDTO commentDTO) {
-        log.info("Create comment: {}", commentDTO);
-        BlogPost post = blogPostRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("BlogPost not found"));
+        log.debug("Create comment for post: {}", id);
+        requireKnownPost(id);
+        // the counter update doubles as the existence check and locks the post row until commit
+        if (blogPostRepository.incrementCommentCount(id, 1) == 0) {
+            throw new NotFoundException("BlogPost not found");
+        }
 
         Comment comment = mapper.toCommentEntity(commentDTO);
-        comment.setBlogPost(post);
+        comment.setBlogPost(blogPostRepository.getReferenceById(id));
         comment = commentRepository.save(comment);
 
-        post.getComments().add(comment);
-        return mapper.toCommentDTO(comment);
+        CommentDTO created = mapper.toCommentDTO(comment);
+        eventPublisher.publishEvent(new CommentCreatedEvent(id, comment.getId(), created));
+        return created;
+    }
+
+    @Transactional
+    public List<CommentBatchResultDTO> createComments(Long id, List<CommentDTO> commentDTOs) {
+        log.debug("Create {} comments for post: {}", commentDTOs.size(), id);
+        requireKnownPost(id);
+        List<CommentBatchItemDTO> items = commentDTOs.stream()
+                .map(commentDTO -> new CommentBatchItemDTO(id, commentDTO.message()))
+                .toList();
+        List<CommentBatchResultDTO> results = saveComments(items);
+        boolean found = results.stream().anyMatch(result -> result.status() == HttpStatus.CREATED.value());
+        boolean missing = results.stream().anyMatch(result -> result.status() == HttpStatus.NOT_FOUND.value());
+        // with no valid comment the counter was never touched, so existence still has to be checked
+        if (missing || !found && !blogPostRepository.existsById(id)) {
+            throw new NotFoundException("BlogPost not found");
+        }
+        return results;
+    }
+
+    @Transactional
+    public List<CommentBatchResultDTO> createComments(List<CommentBatchItemDTO> items) {
+        log.debug("Create {} comments", items.size());
+        return saveComments(items);
+    }
+
+    /**
+     * Validates every item, bumps the comment counter of each target post once, persists the
+     * valid comments in one go (inserts are flushed as JDBC batches at commit) and returns one
+     * result per item, in request order.
+     */
+    private List<CommentBatchResultDTO> saveComments(List<CommentBatchItemDTO> items) {
+        CommentBatchResultDTO[] results = new CommentBatchResultDTO[items.size()];
+        // sorted so concurrent batches lock post rows in the same order
+        SortedMap<Long, List<Integer>> validByPost = new TreeMap<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            CommentBatchItemDTO item = items.get(i);
+            Set<ConstraintViolation<CommentBatchItemDTO>> violations = validator.validate(item);
+            if (violations.isEmpty()) {
+                validByPost.computeIfAbsent(item.postId(), postId -> new ArrayList<>()).add(i);
+                continue;
+            }
+            List<ErrorDetails> errors = violations.stream()
+                    .map(violation -> new ErrorDetails(
+                            violation.getPropertyPath().toString(),
+                            violation.getInvalidValue(),
+                            violation.getMessage()
+                    ))
+                    .toList();
+            results[i] = new CommentBatchResultDTO(i, HttpStatus.BAD_REQUEST.value(), item.postId(),
+                    null, "Validation failed", errors);
+        }
+
+        List<Comment> comments = new ArrayList<>(items.size());
+        List<Integer> indexes = new ArrayList<>(items.size());
+        validByPost.forEach((postId, postIndexes) -> {
+            if (!knownPostIds.exists(postId)
+                    || blogPostRepository.incrementCommentCount(postId, postIndexes.size()) == 0) {
+                postIndexes.forEach(i -> results[i] = new CommentBatchResultDTO(i, HttpStatus.NOT_FOUND.value(),
+                        postId, null, "BlogPost not found", null));
+                return;
+            }
+            BlogPost post = blogPostRepository.getReferenceById(postId);
+            for (Integer i : postIndexes) {
+                Comment comment = mapper.toCommentEntity(new CommentDTO(items.get(i).message()));
+                comment.setBlogPost(post);
+                comments.add(comment);
+                indexes.add(i);
+            }
+        });
+
+        commentRepository.saveAll(comments);
+
+        for (int j = 0; j < comments.size(); j++) {
+            Long postId = items.get(indexes.get(j)).postId();
+            CommentDTO created = mapper.toCommentDTO(comments.get(j));
+            results[indexes.get(j)] = new CommentBatchResultDTO(indexes.get(j), HttpStatus.CREATED.value(), postId,
+                    created, null, null);
+            eventPublisher.publishEvent(new CommentCreatedEvent(postId, comments.get(j).getId(), created));
+        }
+        return List.of(results);
+    }
+
+    // answers requests for posts that never existed without a query
+    private void requireKnownPost(Long id) {
+        if (!knownPostIds.exists(id)) {
+            throw new NotFoundException("BlogPost not found");
+        }
+    }
+
+    private static void requireKnownFields(Set<String> fields, Map<String, PostColumn> known) {
+        if (fields.isEmpty() || !known.keySet().containsAll(fields)) {
+            throw new BadRequestException("fields must be a comma-separated list of " + String.join(", ", known.keySet()));
+        }
+    }
+
+    private static Set<PostColumn> columns(Set<String> fields, Map<String, PostColumn> known) {
+        Set<PostColumn> columns = EnumSet.noneOf(PostColumn.class);
+        for (String field : fields) {
+            if (known.get(field) != null) {
+                columns.add(known.get(field));
+            }
+        }
+        return columns;
+    }
+
+    // in the order of the full representation, whatever the order in the request
+    private static Map<String, Object> selectFields(Set<String> fields, Map<String, PostColumn> known,
+                                                    Function<String, Object> value) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (String field : known.keySet()) {
+            if (fields.contains(field)) {
+                selected.put(field, value.apply(field));
+            }
+        }
+        return selected;
+    }
+
+    private static Object detailValue(BlogPostResponseWithCommentsDTO post, String field) {
+        return switch (field) {
+            case "id" -> post.id();
+            case "title" -> post.title();
+            case "content" -> post.content();
+            case "comments" -> post.comments();
+            case "totalComments" -> post.totalComments();
+            case "nextCommentsCursor" -> post.nextCommentsCursor();
+            case "version" -> post.version();
+            default -> throw new IllegalArgumentException(field);
+        };
     }
 }
@@ -0,0 +1,225 @@
+package com.daalfa.blog.service.service;
+
+import com.daalfa.blog.service.dto.BlogPostImportDTO;
+import com.daalfa.blog.service.dto.BlogPostImportResultDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.event.CommentCreatedEvent;
+import com.daalfa.blog.service.event.PostCreatedEvent;
+import com.daalfa.blog.service.exception.ErrorDetails;
+import com.daalfa.blog.service.mapper.BlogPostMapper;
+import com.daalfa.blog.service.model.BlogPost;
+import com.daalfa.blog.service.model.Comment;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.PostExportRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Bulk import and export of posts with their comments as NDJSON, one post per line.
+ * <p>
+ * Both directions stream: the import reads one line at a time and writes every
+ * {@value #CHUNK_ROWS} rows in their own transaction with batched inserts, clearing the
+ * persistence context in between, and the export writes rows as they come off a database
+ * cursor. Heap use therefore depends on the size of one post, not of the file.
+ */
+@Service
+@Slf4j
+@Timed(value = "blog.transfer", description = "Time spent in BlogPostTransferService methods", histogram = true)
+public class BlogPostTransferService {
+
+    /**
+     * Posts plus comments written per transaction.
+     */
+    static final int CHUNK_ROWS = 1000;
+
+    /**
+     * Rejected lines whose errors are reported, later ones are only counted.
+     */
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final BlogPostRepository blogPostRepository;
+    private final BlogPostMapper mapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    public BlogPostTransferService(BlogPostRepository blogPostRepository,
+                                   BlogPostMapper mapper,
+                                   EntityManager entityManager,
+                                   PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   Validator validator,
+                                   ObjectMapper objectMapper) {
+        this.blogPostRepository = blogPostRepository;
+        this.mapper = mapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Imports posts from NDJSON. Invalid lines are skipped and reported, a malformed line ends
+     * the import. Chunks are committed as they fill, so what was read before an error stays imported.
+     */
+    public BlogPostImportResultDTO importPosts(InputStream input) throws IOException {
+        log.info("Import posts");
+        ImportProgress progress = new ImportProgress();
+        List<BlogPost> chunk = new ArrayList<>();
+        int chunkRows = 0;
+
+        try (MappingIterator<BlogPostImportDTO> lines = objectMapper.readerFor(BlogPostImportDTO.class)
+                .readValues(input)) {
+            while (true) {
+                BlogPostImportDTO line;
+                try {
+                    if (!lines.hasNextValue()) {
+                        break;
+                    }
+                    progress.line++;
+                    line = lines.nextValue();
+                } catch (JsonProcessingException e) {
+                    progress.reject(List.of(new ErrorDetails(progress.field(""), null,
+                            "Malformed JSON: " + e.getOriginalMessage())));
+                    break;
+                }
+
+                if (line == null) {
+                    progress.reject(List.of(new ErrorDetails(progress.field(""), null, "Post cannot be null")));
+                    continue;
+                }
+                Set<ConstraintViolation<BlogPostImportDTO>> violations = validator.validate(line);
+                if (!violations.isEmpty()) {
+                    progress.reject(violations.stream()
+                            .map(violation -> new ErrorDetails(
+                                    progress.field("." + violation.getPropertyPath()),
+                                    violation.getInvalidValue(),
+                                    violation.getMessage()))
+                            .toList());
+                    continue;
+                }
+
+                chunk.add(mapper.toBlogPostEntity(line));
+                chunkRows += 1 + line.comments().size();
+                if (chunkRows >= CHUNK_ROWS) {
+                    write(chunk, progress);
+                    chunk.clear();
+                    chunkRows = 0;
+                }
+            }
+        }
+        write(chunk, progress);
+
+        log.info("Imported {} posts and {} comments, rejected {} lines",
+                progress.posts, progress.comments, progress.rejected);
+        return new BlogPostImportResultDTO(progress.posts, progress.comments, progress.rejected, progress.errors);
+    }
+
+    /**
+     * Writes every post with its comments as NDJSON, reading them from a forward-only cursor.
+     */
+    @Transactional(readOnly = true)
+    public void exportPosts(OutputStream output) throws IOException {
+        log.info("Export posts");
+        try (Stream<PostExportRow> rows = blogPostRepository.streamExportRows();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            // lines end with a newline instead of being separated by a space
+            generator.setRootValueSeparator(null);
+            Long current = null;
+            for (Iterator<PostExportRow> it = rows.iterator(); it.hasNext(); ) {
+                PostExportRow row = it.next();
+                if (!row.getId().equals(current)) {
+                    if (current != null) {
+                        endPost(generator);
+                    }
+                    current = row.getId();
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", current);
+                    generator.writeStringField("title", row.getTitle());
+                    generator.writeStringField("content", row.getContent());
+                    generator.writeArrayFieldStart("comments");
+                }
+                if (row.getMessage() != null) {
+                    generator.writeStartObject();
+                    generator.writeStringField("message", row.getMessage());
+                    generator.writeEndObject();
+                }
+            }
+            if (current != null) {
+                endPost(generator);
+            }
+        }
+    }
+
+    private static void endPost(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void write(List<BlogPost> chunk, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            chunk.forEach(entityManager::persist);
+            entityManager.flush();
+            // the same events as single writes, so caches, search and the listing stamp follow after commit
+            for (BlogPost post : chunk) {
+                eventPublisher.publishEvent(new PostCreatedEvent(mapper.toBlogPostResponseDTO(post)));
+                for (Comment comment : post.getComments()) {
+                    eventPublisher.publishEvent(new CommentCreatedEvent(
+                            post.getId(), comment.getId(), new CommentDTO(comment.getMessage())));
+                }
+            }
+            // the request may hold an open-in-view persistence context, which must not keep the chunk
+            entityManager.clear();
+        });
+        for (BlogPost post : chunk) {
+            progress.posts++;
+            progress.comments += post.getComments().size();
+        }
+    }
+
+    private static final class ImportProgress {
+        private long line;
+        private long posts;
+        private long comments;
+        private long rejected;
+        private final List<ErrorDetails> errors = new ArrayList<>();
+
+        String field(String path) {
+            return "[" + line + "]" + path;
+        }
+
+        void reject(List<ErrorDetails> lineErrors) {
+            if (rejected++ < MAX_REPORTED_ERRORS) {
+                errors.addAll(lineErrors);
+            }
+        }
+    }
+}
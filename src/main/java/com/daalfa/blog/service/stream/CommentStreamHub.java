@@ -0,0 +1,215 @@
+package com.daalfa.blog.service.stream;
+
+import com.daalfa.blog.service.cache.KnownPostIds;
+import com.daalfa.blog.service.event.CommentCreatedEvent;
+import com.daalfa.blog.service.exception.NotFoundException;
+import com.daalfa.blog.service.exception.ServiceUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publish/subscribe hub behind {@code GET /posts/{id}/comments/stream}.
+ * <p>
+ * Each subscriber is an {@link SseEmitter}, an async servlet request that holds no request thread,
+ * with a bounded queue drained by a virtual thread of its own, so an idle subscriber costs a parked
+ * virtual thread and a few objects. Committed comments are serialized once into an SSE frame that is
+ * offered to the queue of every subscriber of the post; publishing never blocks, and a subscriber whose
+ * queue is full is disconnected rather than buffered without bound. Event ids are comment ids, so a
+ * reconnecting client reads what it missed from {@code GET /posts/{id}/comments?after=}.
+ */
+@Component
+@Slf4j
+public class CommentStreamHub implements SmartLifecycle {
+
+    private static final String EVENT_NAME = "comment";
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final KnownPostIds knownPostIds;
+    private final ObjectMapper objectMapper;
+    private final CommentStreamProperties properties;
+    private final Counter published;
+    private final Counter disconnected;
+
+    private volatile boolean running;
+
+    public CommentStreamHub(KnownPostIds knownPostIds,
+                            ObjectMapper objectMapper,
+                            CommentStreamProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.knownPostIds = knownPostIds;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+
+        Gauge.builder("comments.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open comment streams")
+                .register(meterRegistry);
+        this.published = Counter.builder("comments.stream.events")
+                .description("Comment events queued for subscribers")
+                .register(meterRegistry);
+        this.disconnected = Counter.builder("comments.stream.disconnected")
+                .description("Subscribers disconnected because they read too slowly")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the comments created on a post from now on.
+     */
+    public SseEmitter subscribe(Long postId) {
+        if (!knownPostIds.exists(postId)) {
+            throw new NotFoundException("BlogPost not found");
+        }
+        if (!running) {
+            throw new ServiceUnavailableException("Comment streams are shutting down");
+        }
+        if (subscriberCount.incrementAndGet() > properties.maxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Too many open comment streams");
+        }
+
+        Subscriber subscriber = new Subscriber(postId, new SseEmitter(properties.timeout().toMillis()),
+                new ArrayBlockingQueue<>(properties.maxPendingEvents()));
+        subscribers.computeIfAbsent(postId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(error -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(subscriber.emitter::complete);
+        subscriber.writer = Thread.ofVirtual().name("comment-stream-" + postId).start(() -> deliver(subscriber));
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        Set<Subscriber> postSubscribers = subscribers.get(event.postId());
+        if (postSubscribers == null || postSubscribers.isEmpty()) {
+            return;
+        }
+
+        Set<DataWithMediaType> frame;
+        try {
+            frame = SseEmitter.event()
+                    .id(String.valueOf(event.commentId()))
+                    .name(EVENT_NAME)
+                    .data(objectMapper.writeValueAsString(event.comment()), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize comment {} of post {}", event.commentId(), event.postId(), e);
+            return;
+        }
+        for (Subscriber subscriber : postSubscribers) {
+            if (subscriber.queue.offer(frame)) {
+                published.increment();
+            } else {
+                disconnected.increment();
+                unsubscribe(subscriber);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Ends every stream, so the graceful shutdown of the web server does not wait for their timeouts.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        subscribers.values().forEach(postSubscribers -> postSubscribers.forEach(this::unsubscribe));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops before the web server starts its graceful shutdown.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE;
+    }
+
+    private void deliver(Subscriber subscriber) {
+        long heartbeatNanos = properties.heartbeatInterval().toNanos();
+        boolean failed = false;
+        try {
+            // commits the response headers, so the client knows it is subscribed
+            subscriber.emitter.send(SseEmitter.event().comment("subscribed"));
+            while (!subscriber.closed.get()) {
+                Set<DataWithMediaType> frame = subscriber.queue.poll(heartbeatNanos, TimeUnit.NANOSECONDS);
+                if (frame == null) {
+                    subscriber.emitter.send(SseEmitter.event().comment(""));
+                } else {
+                    subscriber.emitter.send(frame);
+                }
+            }
+        } catch (InterruptedException e) {
+            // unsubscribed while waiting for events
+        } catch (IOException | IllegalStateException e) {
+            // the client went away, or the emitter timed out; Spring completes the request itself
+            failed = true;
+            log.debug("Comment stream of post {} ended: {}", subscriber.postId, e.getMessage());
+        } finally {
+            unsubscribe(subscriber);
+            if (!failed) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    // safe to call from any thread and more than once; only the writer thread touches the emitter
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscribers.computeIfPresent(subscriber.postId, (postId, postSubscribers) -> {
+            postSubscribers.remove(subscriber);
+            return postSubscribers.isEmpty() ? null : postSubscribers;
+        });
+        subscriberCount.decrementAndGet();
+        if (subscriber.writer != null && subscriber.writer != Thread.currentThread()) {
+            subscriber.writer.interrupt();
+        }
+    }
+
+    private static final class Subscriber {
+        private final Long postId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread writer;
+
+        Subscriber(Long postId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this.postId = postId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
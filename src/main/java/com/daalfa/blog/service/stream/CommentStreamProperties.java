@@ -0,0 +1,24 @@
+package com.daalfa.blog.service.stream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the comment event streams.
+ *
+ * @param maxSubscribers    maximum number of open streams, above which new ones are rejected with 503
+ * @param maxPendingEvents  events queued for a subscriber that reads too slowly, before it is disconnected
+ * @param heartbeatInterval time without events after which a comment line is sent, to detect closed
+ *                          connections and keep proxies from timing the stream out
+ * @param timeout           lifetime of a stream, after which the client reconnects
+ */
+@ConfigurationProperties("blog.comments.stream")
+public record CommentStreamProperties(
+        @DefaultValue("50000") int maxSubscribers,
+        @DefaultValue("64") int maxPendingEvents,
+        @DefaultValue("15s") Duration heartbeatInterval,
+        @DefaultValue("30m") Duration timeout
+) {
+}
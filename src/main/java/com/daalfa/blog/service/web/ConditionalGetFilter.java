@@ -0,0 +1,107 @@
+package com.daalfa.blog.service.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Feeds {@link ConditionalGetMetrics} with every GET response that carries an ETag.
+ * <p>
+ * The body is counted as it is written, without buffering it, so streamed responses are unaffected.
+ */
+@Component
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+    private final ConditionalGetMetrics metrics;
+
+    public ConditionalGetFilter(ConditionalGetMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CountingResponse counting = new CountingResponse(response);
+        chain.doFilter(request, counting);
+
+        String etag = response.getHeader(HttpHeaders.ETAG);
+        if (etag == null) {
+            return;
+        }
+        String uri = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        if (response.getStatus() == HttpStatus.NOT_MODIFIED.value()) {
+            metrics.recordNotModified(uri, etag);
+        } else if (response.getStatus() == HttpStatus.OK.value()) {
+            metrics.recordFull(uri, etag, counting.bytes);
+        }
+    }
+
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private ServletOutputStream outputStream;
+        private long bytes;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.daalfa.blog.service.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the responses served with an ETag, how many of them were answered with 304 Not Modified
+ * and how many body bytes those 304s saved.
+ * <p>
+ * The saving of a 304 is the size of the last full response sent for the same URI and ETag,
+ * so it is only known for representations this instance has served at least once.
+ */
+@Component
+public class ConditionalGetMetrics {
+
+    private static final int MAX_TRACKED_REPRESENTATIONS = 10_000;
+
+    private final Cache<String, Long> sizes = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_REPRESENTATIONS)
+            .build();
+    private final Counter full;
+    private final Counter notModified;
+    private final Counter bytesSaved;
+
+    public ConditionalGetMetrics(MeterRegistry meterRegistry) {
+        this.full = Counter.builder("http.conditional.responses")
+                .tag("result", "full")
+                .description("Responses with an ETag that carried a body")
+                .register(meterRegistry);
+        this.notModified = Counter.builder("http.conditional.responses")
+                .tag("result", "not_modified")
+                .description("Responses with an ETag answered with 304 Not Modified")
+                .register(meterRegistry);
+        this.bytesSaved = Counter.builder("http.conditional.bytes.saved")
+                .baseUnit("bytes")
+                .description("Body bytes not sent thanks to 304 Not Modified responses")
+                .register(meterRegistry);
+        Gauge.builder("http.conditional.not_modified.ratio", this, ConditionalGetMetrics::notModifiedRatio)
+                .description("Share of the responses with an ETag answered with 304 Not Modified")
+                .register(meterRegistry);
+    }
+
+    public void recordFull(String uri, String etag, long bytes) {
+        full.increment();
+        sizes.put(uri + " " + etag, bytes);
+    }
+
+    public void recordNotModified(String uri, String etag) {
+        notModified.increment();
+        Long size = sizes.getIfPresent(uri + " " + etag);
+        if (size != null) {
+            bytesSaved.increment(size);
+        }
+    }
+
+    private double notModifiedRatio() {
+        double total = full.count() + notModified.count();
+        return total == 0 ? 0 : notModified.count() / total;
+    }
+}
@@ -0,0 +1,105 @@
+package com.daalfa.blog.service.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lets {@code server.compression.min-response-size} apply to JSON responses.
+ * <p>
+ * Message converters flush the body once written, which commits the response without a
+ * {@code Content-Length}, and Tomcat compresses every response of unknown length. Ignoring those flushes
+ * leaves a body that fits the response buffer uncommitted until the request ends, when Tomcat sets its
+ * length and skips compressing it if it is below the threshold. Larger bodies are sent as before.
+ * Event streams rely on each flush reaching the client, so their flushes are passed on.
+ */
+@Component
+@ConditionalOnProperty("server.compression.enabled")
+public class DeferredFlushFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, new DeferredFlushResponse(response));
+    }
+
+    private static class DeferredFlushResponse extends HttpServletResponseWrapper {
+
+        private ServletOutputStream outputStream;
+
+        DeferredFlushResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (isEventStream()) {
+                super.flushBuffer();
+            }
+        }
+
+        // a client may ask for an event stream without saying so in Accept
+        private boolean isEventStream() {
+            String contentType = getContentType();
+            return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        if (isEventStream()) {
+                            delegate.flush();
+                        }
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
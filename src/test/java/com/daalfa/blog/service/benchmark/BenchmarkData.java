@@ -0,0 +1,50 @@
+package com.daalfa.blog.service.benchmark;
+
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.model.BlogPost;
+import com.daalfa.blog.service.model.Comment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Fixtures shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final String TITLE = "Lorem ipsum dolor sit amet";
+    static final String CONTENT = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor "
+            + "incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation.";
+    static final String MESSAGE = "Duis aute irure dolor in reprehenderit in voluptate velit esse cillum dolore.";
+
+    private BenchmarkData() {
+    }
+
+    static BlogPost post(long id, int comments) {
+        BlogPost post = new BlogPost();
+        post.setId(id);
+        post.setTitle(TITLE);
+        post.setContent(CONTENT);
+
+        List<Comment> list = new ArrayList<>(comments);
+        for (int i = 0; i < comments; i++) {
+            Comment comment = new Comment();
+            comment.setId((long) i);
+            comment.setMessage(MESSAGE + " " + i);
+            comment.setBlogPost(post);
+            list.add(comment);
+        }
+        post.setComments(list);
+        post.setCommentCount(comments);
+        return post;
+    }
+
+    static BlogPostResponseWithCommentsDTO postDTO(long id, int comments) {
+        List<CommentDTO> list = IntStream.range(0, comments)
+                .mapToObj(i -> new CommentDTO(MESSAGE + " " + i))
+                .toList();
+        return new BlogPostResponseWithCommentsDTO(id, TITLE, CONTENT, list, comments, null, 0L);
+    }
+}
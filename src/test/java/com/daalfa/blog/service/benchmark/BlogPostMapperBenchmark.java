@@ -0,0 +1,69 @@
+package com.daalfa.blog.service.benchmark;
+
+import com.daalfa.blog.service.dto.*;
+import com.daalfa.blog.service.mapper.BlogPostMapper;
+import com.daalfa.blog.service.mapper.BlogPostMapperImpl;
+import com.daalfa.blog.service.model.BlogPost;
+import com.daalfa.blog.service.model.Comment;
+import com.daalfa.blog.service.repository.PostDetailRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlogPostMapperBenchmark {
+
+    @Param({"0", "100", "10000"})
+    private int comments;
+
+    private final BlogPostMapper mapper = new BlogPostMapperImpl();
+
+    private BlogPost post;
+    private PostDetailRow detail;
+    private BlogPostRequestDTO postRequest;
+    private Comment comment;
+    private CommentDTO commentDTO;
+    private List<CommentDTO> embeddedComments;
+
+    @Setup
+    public void setup() {
+        post = BenchmarkData.post(1L, comments);
+        detail = new PostDetailRow(post.getId(), post.getTitle(), post.getContent(), post.getCommentCount(),
+                post.getVersion(), null, null);
+        postRequest = new BlogPostRequestDTO(BenchmarkData.TITLE, BenchmarkData.CONTENT);
+        comment = post.getComments().isEmpty() ? new Comment() : post.getComments().get(0);
+        commentDTO = new CommentDTO(BenchmarkData.MESSAGE);
+        embeddedComments = post.getComments().stream().limit(20).map(mapper::toCommentDTO).toList();
+    }
+
+    @Benchmark
+    public BlogPostResponseWithCommentsDTO toBlogPostResponseWithCommentsDTO() {
+        return mapper.toBlogPostResponseWithCommentsDTO(detail, embeddedComments, null);
+    }
+
+    @Benchmark
+    public BlogPostResponseDTO toBlogPostResponseDTO() {
+        return mapper.toBlogPostResponseDTO(post);
+    }
+
+    @Benchmark
+    public BlogPost toBlogPostEntity() {
+        return mapper.toBlogPostEntity(postRequest);
+    }
+
+    @Benchmark
+    public CommentDTO toCommentDTO() {
+        return mapper.toCommentDTO(comment);
+    }
+
+    @Benchmark
+    public Comment toCommentEntity() {
+        return mapper.toCommentEntity(commentDTO);
+    }
+}
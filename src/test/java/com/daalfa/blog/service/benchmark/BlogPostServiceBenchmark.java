@@ -0,0 +1,75 @@
+package com.daalfa.blog.service.benchmark;
+
+import com.daalfa.blog.service.BlogServiceApplication;
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.BlogPostSummaryPageDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.service.BlogPostService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Service read paths against an in-memory H2 database seeded with {@code posts} posts
+ * of {@code comments} comments each. The post cache is disabled so every call reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlogPostServiceBenchmark {
+
+    @Param({"1000"})
+    private int posts;
+
+    @Param({"10"})
+    private int comments;
+
+    private ConfigurableApplicationContext context;
+    private BlogPostService blogPostService;
+    private long postId;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(BlogServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "blog.cache.posts.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        blogPostService = context.getBean(BlogPostService.class);
+
+        List<CommentDTO> commentDTOs = IntStream.range(0, comments)
+                .mapToObj(i -> new CommentDTO(BenchmarkData.MESSAGE))
+                .toList();
+        for (int i = 0; i < posts; i++) {
+            postId = blogPostService.createPost(new BlogPostRequestDTO(BenchmarkData.TITLE, BenchmarkData.CONTENT)).id();
+            blogPostService.createComments(postId, commentDTOs);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BlogPostSummaryPageDTO getAllPosts() {
+        return blogPostService.getAllPosts(0L, 50);
+    }
+
+    @Benchmark
+    public BlogPostResponseWithCommentsDTO getPostById() {
+        return blogPostService.getPostById(postId);
+    }
+}
@@ -0,0 +1,101 @@
+package com.daalfa.blog.service.benchmark;
+
+import com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.json.JsonConfiguration;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Serialization of the post detail and of a page of 50 summaries. The {@code write*} benchmarks go
+ * through an HTTP message converter into a discarding stream, as a response does, with Jackson's
+ * converter or with {@code PrebuiltJsonHttpMessageConverter}; run with {@code -prof gc} to compare
+ * the bytes they allocate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final Type SUMMARY_PAGE = new ParameterizedTypeReference<List<BlogPostResponseSummaryDTO>>() {
+    }.getType();
+
+    @Param({"0", "100", "10000"})
+    private int comments;
+
+    @Param({"jackson", "prebuilt"})
+    private String converterType;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private GenericHttpMessageConverter<Object> converter;
+
+    private BlogPostResponseWithCommentsDTO post;
+
+    private List<BlogPostResponseSummaryDTO> summaries;
+
+    // reused, like the headers of a servlet response that exist whichever converter writes the body
+    private final DiscardingOutputMessage response = new DiscardingOutputMessage();
+
+    @Setup
+    public void setup() {
+        converter = converterType.equals("prebuilt")
+                ? new JsonConfiguration().prebuiltJsonHttpMessageConverter(objectMapper)
+                : new MappingJackson2HttpMessageConverter(objectMapper);
+        post = BenchmarkData.postDTO(1L, comments);
+        summaries = LongStream.rangeClosed(1, 50)
+                .mapToObj(id -> new BlogPostResponseSummaryDTO(id, BenchmarkData.TITLE, BenchmarkData.CONTENT, comments))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeBlogPostResponseWithComments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(post);
+    }
+
+    @Benchmark
+    public void writeBlogPostResponseWithComments() throws IOException {
+        response.getHeaders().clear();
+        converter.write(post, BlogPostResponseWithCommentsDTO.class, MediaType.APPLICATION_JSON, response);
+    }
+
+    @Benchmark
+    public void writeSummaryPage() throws IOException {
+        response.getHeaders().clear();
+        converter.write(summaries, SUMMARY_PAGE, MediaType.APPLICATION_JSON, response);
+    }
+
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final OutputStream body = OutputStream.nullOutputStream();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.daalfa.blog.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrequencySketchTest {
+
+    private final FrequencySketch sketch = new FrequencySketch(10_000);
+
+    @Test
+    void givenIncrements_whenFrequency_thenNeverUnderestimatedAndSaturatesAt15() {
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(42);
+        }
+        assertThat(sketch.frequency(42)).isGreaterThanOrEqualTo(5);
+
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(42);
+        }
+        assertThat(sketch.frequency(42)).isEqualTo(FrequencySketch.MAX_FREQUENCY);
+    }
+
+    @Test
+    void givenSkewedReads_whenFrequency_thenHotIdsStandOut() {
+        for (long round = 0; round < 20; round++) {
+            LongStream.rangeClosed(1, 5).forEach(sketch::increment);
+            // every cold id is read once
+            LongStream.rangeClosed(1_000 + round * 200, 1_000 + round * 200 + 199).forEach(sketch::increment);
+        }
+
+        LongStream.rangeClosed(1, 5).forEach(id ->
+                assertThat(sketch.frequency(id)).isEqualTo(FrequencySketch.MAX_FREQUENCY));
+        long falselyHot = LongStream.rangeClosed(1_000, 4_999)
+                .filter(id -> sketch.frequency(id) >= 8)
+                .count();
+        assertThat(falselyHot).isZero();
+    }
+
+    @Test
+    void givenFullSample_whenIncrement_thenCountersAreHalved() {
+        FrequencySketch small = new FrequencySketch(1_000);
+        for (int i = 0; i < 10; i++) {
+            small.increment(7);
+        }
+        int before = small.frequency(7);
+
+        boolean halved = false;
+        for (long id = 1_000; !halved; id++) {
+            halved = small.increment(id);
+        }
+
+        assertThat(small.frequency(7)).isEqualTo(before / 2);
+    }
+
+    @Test
+    void givenSampleSize_whenMemoryBytes_thenAboutOneCounterPerTenReads() {
+        assertThat(sketch.memoryBytes()).isEqualTo(8 * 1024);
+        assertThat(new FrequencySketch(1).memoryBytes()).isEqualTo(16 * Long.BYTES);
+    }
+}
@@ -0,0 +1,76 @@
+package com.daalfa.blog.service.cache;
+
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.service.BlogPostService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HotPostResponsesTest {
+
+    private static final long ID = 7;
+
+    private final BlogPostService blogPostService = mock(BlogPostService.class);
+
+    @Test
+    void givenJsonOlderThanTtl_whenGet_thenMissAndRebuiltWithCommentsWrittenElsewhere() {
+        HotPostResponses hotPosts = hotPosts(Duration.ofMillis(200));
+        when(blogPostService.getPostByIdUncached(ID)).thenReturn(post(List.of()));
+        HotPostResponses.Response first = awaitHit(hotPosts);
+        assertThat(first.version()).isZero();
+
+        // a comment written by another instance, which publishes no event here
+        when(blogPostService.getPostByIdUncached(ID)).thenReturn(post(List.of(new CommentDTO("elsewhere"))));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            HotPostResponses.Response response = hotPosts.get(ID);
+            return response != null && response.version() == 1;
+        });
+        assertThat(new String(hotPosts.get(ID).json(), StandardCharsets.UTF_8)).contains("elsewhere");
+    }
+
+    @Test
+    void givenJsonYoungerThanTtl_whenGet_thenHit() {
+        HotPostResponses hotPosts = hotPosts(Duration.ofMinutes(1));
+        when(blogPostService.getPostByIdUncached(ID)).thenReturn(post(List.of()));
+        HotPostResponses.Response first = awaitHit(hotPosts);
+
+        when(blogPostService.getPostByIdUncached(ID)).thenReturn(post(List.of(new CommentDTO("elsewhere"))));
+
+        assertThat(hotPosts.get(ID)).isSameAs(first);
+    }
+
+    private HotPostResponses hotPosts(Duration ttl) {
+        return new HotPostResponses(new HotPostProperties(true, 1000, 1, 10, DataSize.ofMegabytes(1), ttl),
+                blogPostService, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    // reads the post, as the controller would, until its JSON is built
+    private HotPostResponses.Response awaitHit(HotPostResponses hotPosts) {
+        HotPostResponses.Response[] response = new HotPostResponses.Response[1];
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            response[0] = hotPosts.get(ID);
+            if (response[0] == null) {
+                hotPosts.offer(ID);
+            }
+            return response[0] != null;
+        });
+        return response[0];
+    }
+
+    private static BlogPostResponseWithCommentsDTO post(List<CommentDTO> comments) {
+        return new BlogPostResponseWithCommentsDTO(ID, "title", "content", comments, comments.size(), null,
+                comments.size());
+    }
+}
@@ -0,0 +1,75 @@
+package com.daalfa.blog.service.cache;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostIdBitmapTest {
+
+    private final PostIdBitmap bitmap = new PostIdBitmap();
+
+    @Test
+    void givenAddedIds_whenContains_thenOnlyThoseAreFound() {
+        bitmap.add(1);
+        bitmap.add(63);
+        bitmap.add(64);
+        bitmap.add(PostIdBitmap.CHUNK_IDS * 3L + 5);
+
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.contains(63)).isTrue();
+        assertThat(bitmap.contains(64)).isTrue();
+        assertThat(bitmap.contains(PostIdBitmap.CHUNK_IDS * 3L + 5)).isTrue();
+        assertThat(bitmap.contains(0)).isFalse();
+        assertThat(bitmap.contains(2)).isFalse();
+        assertThat(bitmap.contains(65)).isFalse();
+        assertThat(bitmap.contains(PostIdBitmap.CHUNK_IDS)).isFalse();
+        assertThat(bitmap.contains(-1)).isFalse();
+        assertThat(bitmap.contains(Long.MAX_VALUE)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(4);
+    }
+
+    @Test
+    void givenMillionSequentialIds_whenMeasureHeap_thenAbout128KiBAndEstimateMatches() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // loads and compiles the classes involved, so only the second bitmap's own objects are counted
+        addSequentialIds(new PostIdBitmap(), 1_000_000);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        PostIdBitmap measured = new PostIdBitmap();
+        addSequentialIds(measured, 1_000_000);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(measured.cardinality()).isEqualTo(1_000_000);
+        assertThat(measured.contains(1_000_000)).isTrue();
+        assertThat(measured.contains(1_000_001)).isFalse();
+        // 16 chunks of 8 KiB; the directory copies left behind while it grew are a few hundred bytes
+        assertThat(allocated).isBetween(128L * 1024, 132L * 1024);
+        assertThat(measured.estimatedMemoryBytes()).isBetween(allocated - 2048, allocated);
+    }
+
+    @Test
+    void givenConcurrentAdds_whenDone_thenEveryIdIsCountedOnce() {
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int thread = 0; thread < 4; thread++) {
+                // overlapping ranges, so threads race on the same words and chunks
+                long from = thread * 100_000L;
+                executor.submit(() -> LongStream.range(from, from + 300_000).forEach(bitmap::add));
+            }
+        }
+
+        assertThat(bitmap.cardinality()).isEqualTo(600_000);
+        assertThat(LongStream.range(0, 600_000).allMatch(bitmap::contains)).isTrue();
+    }
+
+    private static void addSequentialIds(PostIdBitmap bitmap, long count) {
+        for (long id = 1; id <= count; id++) {
+            bitmap.add(id);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.daalfa.blog.service.exception;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpectedErrorLogTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(ExpectedErrorLogTest.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setup() {
+        appender.start();
+        logger.addAppender(appender);
+        logger.setAdditive(false);
+    }
+
+    @Test
+    void givenFloodOfErrors_whenWarn_thenLogBurstAndReportSuppressedWithNextLine() throws InterruptedException {
+        var log = new ExpectedErrorLog(logger, new ExpectedErrorLogProperties(true, 3, 20));
+
+        for (int i = 0; i < 10; i++) {
+            log.warn("handleNotFoundException", new NotFoundException("BlogPost not found"));
+        }
+        assertThat(appender.list).hasSize(3);
+
+        // a token is back after 50 ms
+        Thread.sleep(100);
+        log.warn("handleNotFoundException", new NotFoundException("BlogPost not found"));
+
+        assertThat(appender.list).hasSize(4);
+        assertThat(appender.list.getLast().getFormattedMessage())
+                .isEqualTo("handleNotFoundException: BlogPost not found (7 more expected errors not logged)");
+    }
+
+    @Test
+    void givenNotThrottled_whenWarn_thenLogEveryError() {
+        var log = new ExpectedErrorLog(logger, new ExpectedErrorLogProperties(false, 3, 20));
+
+        for (int i = 0; i < 10; i++) {
+            log.warn("handleBadRequestException", new BadRequestException("Unknown field: foo"));
+        }
+
+        assertThat(appender.list).hasSize(10)
+                .allSatisfy(event -> assertThat(event.getFormattedMessage())
+                        .isEqualTo("handleBadRequestException: Unknown field: foo"));
+    }
+}
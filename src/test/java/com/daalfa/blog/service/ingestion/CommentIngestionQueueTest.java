@@ -0,0 +1,192 @@
+package com.daalfa.blog.service.ingestion;
+
+import com.daalfa.blog.service.cache.KnownPostIds;
+import com.daalfa.blog.service.dto.CommentBatchItemDTO;
+import com.daalfa.blog.service.dto.CommentBatchResultDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.exception.NotFoundException;
+import com.daalfa.blog.service.exception.PreconditionFailedException;
+import com.daalfa.blog.service.exception.TooManyRequestsException;
+import com.daalfa.blog.service.service.BlogPostService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CommentIngestionQueueTest {
+
+    @Mock
+    private BlogPostService blogPostService;
+
+    @Mock
+    private KnownPostIds knownPostIds;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CommentIngestionQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void givenFullQueue_whenSubmit_thenRejectWithTooManyRequests() {
+        queue = newQueue(2, 10);
+        when(knownPostIds.exists(1L)).thenReturn(true);
+
+        queue.submit(1L, new CommentDTO("first"));
+        queue.submit(1L, new CommentDTO("second"));
+
+        assertThatExceptionOfType(TooManyRequestsException.class)
+                .isThrownBy(() -> queue.submit(1L, new CommentDTO("third")));
+        assertThat(meterRegistry.get("comments.ingestion.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenUnknownPost_whenSubmit_thenThrowNotFoundException() {
+        queue = newQueue(2, 10);
+        when(knownPostIds.exists(404L)).thenReturn(false);
+
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> queue.submit(404L, new CommentDTO("message")))
+                .withMessage("BlogPost not found");
+    }
+
+    @Test
+    void givenQueuedComments_whenWriterRuns_thenWriteThemInBatchesInOrder() throws Exception {
+        queue = newQueue(100, 2);
+        when(knownPostIds.exists(anyLong())).thenReturn(true);
+        when(blogPostService.createComments(anyList()))
+                .thenReturn(List.of());
+
+        long first = queue.submit(1L, new CommentDTO("a"));
+        queue.submit(2L, new CommentDTO("b"));
+        long last = queue.submit(1L, new CommentDTO("c"));
+        queue.start();
+
+        assertThat(first).isEqualTo(1);
+        assertThat(queue.awaitProcessed(last, Duration.ofSeconds(10))).isTrue();
+        assertThat(writtenBatches()).containsExactly(
+                List.of(new CommentBatchItemDTO(1L, "a"), new CommentBatchItemDTO(2L, "b")),
+                List.of(new CommentBatchItemDTO(1L, "c")));
+    }
+
+    @Test
+    void givenQueuedComments_whenStopped_thenDrainThemBeforeReturning() {
+        queue = newQueue(100, 500);
+        when(knownPostIds.exists(anyLong())).thenReturn(true);
+        when(blogPostService.createComments(anyList()))
+                .thenReturn(List.of());
+
+        for (int i = 0; i < 50; i++) {
+            queue.submit(1L, new CommentDTO("comment " + i));
+        }
+        queue.start();
+        queue.stop();
+
+        assertThat(writtenBatches().stream().mapToInt(List::size).sum()).isEqualTo(50);
+        assertThat(queue.isRunning()).isFalse();
+    }
+
+    @Test
+    void givenFailedBatch_whenWriterRuns_thenRetryCommentsOneByOne() throws Exception {
+        queue = newQueue(100, 10);
+        when(knownPostIds.exists(anyLong())).thenReturn(true);
+        when(blogPostService.createComments(anyList()))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenReturn(List.of());
+
+        queue.submit(1L, new CommentDTO("a"));
+        long last = queue.submit(2L, new CommentDTO("b"));
+        queue.start();
+
+        assertThat(queue.awaitProcessed(last, Duration.ofSeconds(10))).isTrue();
+        assertThat(writtenBatches()).containsExactly(
+                List.of(new CommentBatchItemDTO(1L, "a"), new CommentBatchItemDTO(2L, "b")),
+                List.of(new CommentBatchItemDTO(1L, "a")),
+                List.of(new CommentBatchItemDTO(2L, "b")));
+        assertThat(meterRegistry.get("comments.ingestion.failed").counter().count()).isZero();
+    }
+
+    @Test
+    void givenCommentThatCannotBeWritten_whenAwaitProcessed_thenFailOnlyForItsTicket() throws Exception {
+        queue = newQueue(100, 10);
+        when(knownPostIds.exists(anyLong())).thenReturn(true);
+        when(blogPostService.createComments(anyList())).thenAnswer(invocation -> {
+            List<CommentBatchItemDTO> items = invocation.getArgument(0);
+            if (items.stream().anyMatch(item -> item.message().equals("bad"))) {
+                throw new IllegalStateException("constraint violated");
+            }
+            return List.of();
+        });
+
+        long good = queue.submit(1L, new CommentDTO("good"));
+        long bad = queue.submit(1L, new CommentDTO("bad"));
+        queue.start();
+
+        assertThatExceptionOfType(PreconditionFailedException.class)
+                .isThrownBy(() -> queue.awaitProcessed(bad, Duration.ofSeconds(10)))
+                .withMessage("Comment " + bad + " could not be written");
+        assertThat(queue.awaitProcessed(good, Duration.ZERO)).isTrue();
+        // the batch, then the good comment, then three attempts of the bad one
+        verify(blogPostService, times(5)).createComments(anyList());
+        assertThat(meterRegistry.get("comments.ingestion.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenCommentRejectedByService_whenAwaitProcessed_thenFail() throws Exception {
+        queue = newQueue(100, 10);
+        when(knownPostIds.exists(anyLong())).thenReturn(true);
+        when(blogPostService.createComments(anyList())).thenReturn(List.of(
+                new CommentBatchResultDTO(0, HttpStatus.CREATED.value(), 1L, new CommentDTO("a"), null, null),
+                new CommentBatchResultDTO(1, HttpStatus.NOT_FOUND.value(), 2L, null, "BlogPost not found", null)));
+
+        long created = queue.submit(1L, new CommentDTO("a"));
+        long rejected = queue.submit(2L, new CommentDTO("b"));
+        queue.start();
+
+        assertThatExceptionOfType(PreconditionFailedException.class)
+                .isThrownBy(() -> queue.awaitProcessed(rejected, Duration.ofSeconds(10)));
+        assertThat(queue.awaitProcessed(created, Duration.ZERO)).isTrue();
+    }
+
+    @Test
+    void givenUnknownTicket_whenAwaitProcessed_thenReturnImmediately() throws Exception {
+        queue = newQueue(2, 10);
+
+        assertThat(queue.awaitProcessed(42L, Duration.ZERO)).isTrue();
+    }
+
+    private List<List<CommentBatchItemDTO>> writtenBatches() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CommentBatchItemDTO>> batches = ArgumentCaptor.forClass(List.class);
+        verify(blogPostService, atLeastOnce()).createComments(batches.capture());
+        return batches.getAllValues();
+    }
+
+    private CommentIngestionQueue newQueue(int capacity, int batchSize) {
+        var properties = new CommentIngestionProperties(CommentIngestionProperties.Mode.ASYNC, capacity, batchSize,
+                Duration.ofMillis(50), Duration.ofSeconds(10), Duration.ofSeconds(1), 3, Duration.ofMillis(1));
+        return new CommentIngestionQueue(blogPostService, knownPostIds, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,370 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.*;
+import com.daalfa.blog.service.exception.ErrorMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The contract of the four post endpoints (get, list, create post, create comment) and their error responses,
+ * run against the servlet variant by {@link BlogPostIntegrationTest} and against the reactive variant by
+ * {@link ReactiveBlogPostIntegrationTest}. Subclasses give access to the database behind the API.
+ */
+abstract class AbstractBlogPostIntegrationTest {
+
+    @Autowired
+    protected TestRestTemplate restTemplate;
+
+    abstract void deleteAllPosts();
+
+    /**
+     * Inserts a post without going through the API.
+     *
+     * @return its id
+     */
+    abstract Long savePost(String title, String content);
+
+    /**
+     * Reads a post without going through the API.
+     */
+    abstract Optional<BlogPostResponseDTO> findPost(Long id);
+
+    @BeforeEach
+    void setup() {
+        deleteAllPosts();
+    }
+
+    @Test
+    void shouldGetSinglePost() {
+        var id = savePost("Title", "Content");
+
+        ResponseEntity<BlogPostResponseWithCommentsDTO> response =
+                restTemplate.getForEntity("/posts/"+id,
+                        BlogPostResponseWithCommentsDTO.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        assertThat(response.getBody().comments()).isEmpty();
+        assertThat(response.getBody().id()).isEqualTo(id);
+    }
+
+    @Test
+    void givenUnknownPost_whenGetPost_thenShouldReturnNotFound() {
+        ResponseEntity<ErrorMessage> response =
+                restTemplate.getForEntity("/posts/"+Long.MAX_VALUE, ErrorMessage.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isEqualTo(new ErrorMessage(404, "BlogPost not found", null));
+    }
+
+    @Test
+    void shouldGetAllPosts() {
+        savePost("Title 1", "Content 1");
+        savePost("Title 1", "Content 1");
+
+        ResponseEntity<BlogPostResponseSummaryDTO[]> response =
+                restTemplate.getForEntity(
+                        "/posts",
+                        BlogPostResponseSummaryDTO[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).hasSize(2);
+    }
+
+    @Test
+    void shouldPaginatePostsWithCursor() {
+        for (int i = 0; i < 3; i++) {
+            savePost("Title " + i, "Content " + i);
+        }
+
+        ResponseEntity<BlogPostResponseSummaryDTO[]> firstPage =
+                restTemplate.getForEntity(
+                        "/posts?limit=2",
+                        BlogPostResponseSummaryDTO[].class);
+
+        assertThat(firstPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(firstPage.getBody()).hasSize(2);
+        String cursor = firstPage.getHeaders().getFirst("X-Next-Cursor");
+        assertThat(cursor).isEqualTo(firstPage.getBody()[1].id().toString());
+        assertThat(firstPage.getHeaders().getFirst(HttpHeaders.LINK))
+                .contains("after=" + cursor, "limit=2", "rel=\"next\"");
+
+        ResponseEntity<BlogPostResponseSummaryDTO[]> secondPage =
+                restTemplate.getForEntity(
+                        "/posts?limit=2&after=" + cursor,
+                        BlogPostResponseSummaryDTO[].class);
+
+        assertThat(secondPage.getBody()).hasSize(1);
+        assertThat(secondPage.getBody()[0].title()).isEqualTo("Title 2");
+        assertThat(secondPage.getHeaders().containsKey("X-Next-Cursor")).isFalse();
+    }
+
+    @Test
+    void givenMatchingEtag_whenGetAllPosts_thenShouldReturnNotModifiedUntilThePostsChange() {
+        var id = restTemplate.postForEntity("/posts", new BlogPostRequestDTO("title", "content"),
+                BlogPostResponseDTO.class).getBody().id();
+        String etag = restTemplate.getForEntity("/posts", String.class).getHeaders().getETag();
+
+        assertThat(etag).startsWith("W/\"posts-");
+        assertThat(getAllPostsIfNoneMatch(etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        restTemplate.postForEntity("/posts/"+id+"/comments", new CommentDTO("comment"), CommentDTO.class);
+
+        ResponseEntity<BlogPostResponseSummaryDTO[]> afterComment = getAllPostsIfNoneMatch(etag);
+        assertThat(afterComment.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(afterComment.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(afterComment.getBody()[0].comments()).isEqualTo(1);
+    }
+
+    private ResponseEntity<BlogPostResponseSummaryDTO[]> getAllPostsIfNoneMatch(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return restTemplate.exchange("/posts", HttpMethod.GET, new HttpEntity<>(headers),
+                BlogPostResponseSummaryDTO[].class);
+    }
+
+    @Test
+    void givenTooLargeLimit_whenGetAllPosts_thenShouldReturnBadRequest() {
+        ResponseEntity<ErrorMessage> response =
+                restTemplate.getForEntity(
+                        "/posts?limit=10000",
+                        ErrorMessage.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().message()).isEqualTo("Validation failed");
+    }
+
+    @Test
+    void shouldCreatePost() {
+        var blogPostRequestDTO = new BlogPostRequestDTO("title", "content");
+
+        ResponseEntity<BlogPostResponseDTO> response =
+                restTemplate.postForEntity(
+                        "/posts",
+                        blogPostRequestDTO,
+                        BlogPostResponseDTO.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        assertThat(response.getBody().title()).isEqualTo("title");
+        assertThat(response.getBody().content()).isEqualTo("content");
+
+        Optional<BlogPostResponseDTO> savedPost = findPost(response.getBody().id());
+        assertThat(savedPost).isPresent();
+        assertThat(savedPost.get().title()).isEqualTo("title");
+        assertThat(savedPost.get().content()).isEqualTo("content");
+    }
+
+    @Test
+    void shouldCreatePostComment() {
+        var id = savePost("Title", "Content");
+
+        CommentDTO commentDTO = new CommentDTO("comment");
+
+        ResponseEntity<CommentDTO> response =
+                restTemplate.postForEntity(
+                        "/posts/"+id+"/comments",
+                        commentDTO,
+                        CommentDTO.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody().message()).isEqualTo("comment");
+
+        ResponseEntity<BlogPostResponseWithCommentsDTO> response2 =
+                restTemplate.getForEntity("/posts/"+id,
+                        BlogPostResponseWithCommentsDTO.class);
+
+        assertThat(response2.getBody().comments()).hasSize(1);
+        assertThat(response2.getBody().comments().get(0).message()).isEqualTo("comment");
+        assertThat(response2.getBody().totalComments()).isEqualTo(1);
+    }
+
+    @Test
+    void givenUnknownPost_whenCreateComment_thenShouldReturnNotFound() {
+        ResponseEntity<ErrorMessage> response =
+                restTemplate.postForEntity(
+                        "/posts/"+Long.MAX_VALUE+"/comments",
+                        new CommentDTO("comment"),
+                        ErrorMessage.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isEqualTo(new ErrorMessage(404, "BlogPost not found", null));
+    }
+
+    @Test
+    void givenNegativeId_whenGetPost_thenShouldReturnBadRequest() {
+        long invalidId = -1;
+
+        ResponseEntity<ErrorMessage> response =
+                restTemplate.getForEntity(
+                        "/posts/" + invalidId,
+                        ErrorMessage.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().status()).isEqualTo(400);
+        assertThat(response.getBody().message()).isEqualTo("Validation failed");
+        assertThat(response.getBody().errors()).hasSize(1);
+        assertThat(response.getBody().errors().get(0).rejectedValue()).isEqualTo(-1);
+        assertThat(response.getBody().errors().get(0).message()).isEqualTo("must be greater than 0");
+    }
+
+    // Create Post - Title Validation
+    @Test
+    void givenLongTitle_whenCreatePost_thenShouldReturnBadRequest() {
+        String longTitle = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod";
+
+        var blogPostRequestDTO = new BlogPostRequestDTO(
+                longTitle,
+                "content");
+
+        ResponseEntity<ErrorMessage> response =
+                restTemplate.postForEntity(
+                        "/posts",
+                        blogPostRequestDTO,
+                        ErrorMessage.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().status()).isEqualTo(400);
+        assertThat(response.getBody().message()).isEqualTo("Validation failed");
+        assertThat(response.getBody().errors()).hasSize(1)
+                .anySatisfy(error -> {
+                    assertThat(error.rejectedValue()).isEqualTo(longTitle);
+                    assertThat(error.message()).isEqualTo("Title must be between 1 and 64 characters");
+                });
+    }
+
+    @Test
+    void givenEmptyTitle_whenCreatePost_thenShouldReturnBadRequest() {
+        var blogPostRequestDTO = new BlogPostRequestDTO(
+                "",
+                "content");
+
+        ResponseEntity<ErrorMessage> response =
+                restTemplate.postForEntity(
+                        "/posts",
+                        blogPostRequestDTO,
+                        ErrorMessage.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().status()).isEqualTo(400);
+        assertThat(response.getBody().message()).isEqualTo("Validation failed");
+        assertThat(response.getBody().errors()).hasSizeGreaterThanOrEqualTo(1)
+                .anySatisfy(error -> {
+                    assertThat(error.rejectedValue()).isEqualTo("");
+                    assertThat(error.message()).isEqualTo("Title cannot be empty");
+                });
+    }
+
+    // Create Post - Content Validation
+    @Test
+    void givenLongContent_whenCreatePost_thenShouldReturnBadRequest() {
+        String longContent = """
+                Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut
+                labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation ullamco
+                laboris nisi ut aliquip ex ea commodo consequat. Duis aute irure dolor in reprehenderit
+                """;
+
+        var blogPostRequestDTO = new BlogPostRequestDTO(
+                "title",
+                longContent);
+
+        ResponseEntity<ErrorMessage> response =
+                restTemplate.postForEntity(
+                        "/posts",
+                        blogPostRequestDTO,
+                        ErrorMessage.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().status()).isEqualTo(400);
+        assertThat(response.getBody().message()).isEqualTo("Validation failed");
+        assertThat(response.getBody().errors()).hasSize(1)
+                .anySatisfy(error -> {
+                    assertThat(error.rejectedValue()).isEqualTo(longContent);
+                    assertThat(error.message()).isEqualTo("Content must be between 1 and 256 characters");
+                });
+    }
+
+    @Test
+    void givenEmptyContent_whenCreatePost_thenShouldReturnBadRequest() {
+        var blogPostRequestDTO = new BlogPostRequestDTO(
+                "title",
+                "");
+
+        ResponseEntity<ErrorMessage> response =
+                restTemplate.postForEntity(
+                        "/posts",
+                        blogPostRequestDTO,
+                        ErrorMessage.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().status()).isEqualTo(400);
+        assertThat(response.getBody().message()).isEqualTo("Validation failed");
+        assertThat(response.getBody().errors()).hasSizeGreaterThanOrEqualTo(1)
+                .anySatisfy(error -> {
+                    assertThat(error.rejectedValue()).isEqualTo("");
+                    assertThat(error.message()).isEqualTo("Content cannot be empty");
+                });
+    }
+
+    // Create Comment - Message Validation
+    @Test
+    void givenLongComment_whenCreateComment_thenShouldReturnBadRequest() {
+        var id = savePost("Title", "Content");
+
+        String longMessage = """
+                Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut
+                labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation ullamco
+                laboris nisi ut aliquip ex ea commodo consequat. Duis aute irure dolor in reprehenderit
+                """;
+
+        var commentDTO = new CommentDTO(longMessage);
+
+        ResponseEntity<ErrorMessage> response =
+                restTemplate.postForEntity(
+                        "/posts/"+id+"/comments",
+                        commentDTO,
+                        ErrorMessage.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().status()).isEqualTo(400);
+        assertThat(response.getBody().message()).isEqualTo("Validation failed");
+        assertThat(response.getBody().errors()).hasSize(1)
+                .anySatisfy(error -> {
+                    assertThat(error.rejectedValue()).isEqualTo(longMessage);
+                    assertThat(error.message()).isEqualTo("Message must be between 1 and 256 characters");
+                });
+    }
+
+    @Test
+    void givenEmptyComment_whenCreateComment_thenShouldReturnBadRequest() {
+        var id = savePost("Title", "Content");
+
+        var commentDTO = new CommentDTO("");
+
+        ResponseEntity<ErrorMessage> response =
+                restTemplate.postForEntity(
+                        "/posts/"+id+"/comments",
+                        commentDTO,
+                        ErrorMessage.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().status()).isEqualTo(400);
+        assertThat(response.getBody().message()).isEqualTo("Validation failed");
+        assertThat(response.getBody().errors()).hasSizeGreaterThanOrEqualTo(1)
+                .anySatisfy(error -> {
+                    assertThat(error.rejectedValue()).isEqualTo("");
+                    assertThat(error.message()).isEqualTo("Message cannot be empty");
+                });
+    }
+}
@@ -5,23 +5,23 @@ import com.daalfa.blog.service.exception.ErrorMessage;
 import com.daalfa.blog.service.model.BlogPost;
 import com.daalfa.blog.service.repository.BlogPostRepository;
 import com.daalfa.blog.service.repository.CommentRepository;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.web.client.TestRestTemplate;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.*;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+/**
+ * The servlet variant: the shared post contract of {@link AbstractBlogPostIntegrationTest}, plus the endpoints
+ * only this variant has (streaming listing, search, comment pages and batches).
+ */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
-class BlogPostIntegrationTest {
-
-    @Autowired
-    private TestRestTemplate restTemplate;
+class BlogPostIntegrationTest extends AbstractBlogPostIntegrationTest {
 
     @Autowired
     private BlogPostRepository blogPostRepository;
@@ -29,269 +29,224 @@ class BlogPostIntegrationTest {
     @Autowired
     private CommentRepository commentRepository;
 
-    @BeforeEach
-    void setup() {
+    @Override
+    void deleteAllPosts() {
         blogPostRepository.deleteAll();
         commentRepository.deleteAll();
     }
 
-    @Test
-    void shouldGetSinglePost() {
+    @Override
+    Long savePost(String title, String content) {
         BlogPost post = new BlogPost();
-        post.setTitle("Title");
-        post.setContent("Content");
+        post.setTitle(title);
+        post.setContent(content);
+        return blogPostRepository.save(post).getId();
+    }
 
-        var id = blogPostRepository.save(post).getId();
+    @Override
+    Optional<BlogPostResponseDTO> findPost(Long id) {
+        return blogPostRepository.findById(id)
+                .map(post -> new BlogPostResponseDTO(post.getId(), post.getTitle(), post.getContent()));
+    }
 
-        ResponseEntity<BlogPostResponseWithCommentsDTO> response =
-                restTemplate.getForEntity("/posts/"+id,
-                        BlogPostResponseWithCommentsDTO.class);
+    @Test
+    void shouldStreamAllPostsAsNdjson() {
+        for (int i = 0; i < 3; i++) {
+            BlogPost post = new BlogPost();
+            post.setTitle("Title " + i);
+            post.setContent("Content " + i);
+            blogPostRepository.save(post);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        ResponseEntity<String> response =
+                restTemplate.exchange(
+                        "/posts",
+                        HttpMethod.GET,
+                        new HttpEntity<>(headers),
+                        String.class);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-
-        assertThat(response.getBody().comments()).isEmpty();
-        assertThat(response.getBody().id()).isEqualTo(post.getId());
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(response.getBody().lines())
+                .hasSize(3)
+                .allSatisfy(line -> assertThat(line).startsWith("{\"id\":").contains("\"comments\":0"));
     }
 
     @Test
-    void shouldGetAllPosts() {
-        BlogPost post1 = new BlogPost();
-        post1.setTitle("Title 1");
-        post1.setContent("Content 1");
-
-        BlogPost post2 = new BlogPost();
-        post2.setTitle("Title 1");
-        post2.setContent("Content 1");
-
-        blogPostRepository.save(post1);
-        blogPostRepository.save(post2);
+    void shouldSearchPostsByTitleContentAndComment() {
+        var created = restTemplate.postForEntity(
+                "/posts",
+                new BlogPostRequestDTO("Searchable xylophone", "About marimbas"),
+                BlogPostResponseDTO.class).getBody();
+        restTemplate.postForEntity(
+                "/posts/"+created.id()+"/comments",
+                new CommentDTO("I love glockenspiels"),
+                CommentDTO.class);
+
+        for (String query : List.of("xylophone", "marimbas", "glockenspiels")) {
+            ResponseEntity<PostSearchResultDTO[]> response =
+                    restTemplate.getForEntity(
+                            "/posts/search?q=" + query,
+                            PostSearchResultDTO[].class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getHeaders().getFirst("X-Total-Count")).isEqualTo("1");
+            assertThat(response.getBody()).extracting(PostSearchResultDTO::id).containsExactly(created.id());
+        }
+    }
 
-        ResponseEntity<BlogPostResponseSummaryDTO[]> response =
+    @Test
+    void givenBlankQuery_whenSearchPosts_thenShouldReturnBadRequest() {
+        ResponseEntity<ErrorMessage> response =
                 restTemplate.getForEntity(
-                        "/posts",
-                        BlogPostResponseSummaryDTO[].class);
+                        "/posts/search?q= ",
+                        ErrorMessage.class);
 
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(response.getBody()).hasSize(2);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
     }
 
     @Test
-    void shouldCreatePost() {
-        var blogPostRequestDTO = new BlogPostRequestDTO("title", "content");
+    void givenTooLargeOffset_whenSearchPosts_thenShouldReturnBadRequest() {
+        ResponseEntity<ErrorMessage> response =
+                restTemplate.getForEntity(
+                        "/posts/search?q=a&offset=2147483640",
+                        ErrorMessage.class);
 
-        ResponseEntity<BlogPostResponseDTO> response =
-                restTemplate.postForEntity(
-                        "/posts",
-                        blogPostRequestDTO,
-                        BlogPostResponseDTO.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
 
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    @Test
+    void givenOffsetPastAllMatches_whenSearchPosts_thenShouldReturnEmptyPage() {
+        restTemplate.postForEntity("/posts", new BlogPostRequestDTO("Searchable xylophone", "content"),
+                BlogPostResponseDTO.class);
 
-        assertThat(response.getBody().title()).isEqualTo("title");
-        assertThat(response.getBody().content()).isEqualTo("content");
+        ResponseEntity<PostSearchResultDTO[]> response =
+                restTemplate.getForEntity(
+                        "/posts/search?q=xylophone&offset=10000&limit=500",
+                        PostSearchResultDTO[].class);
 
-        Optional<BlogPost> savedPost = blogPostRepository.findById(response.getBody().id());
-        assertThat(savedPost).isPresent();
-        assertThat(savedPost.get().getTitle()).isEqualTo("title");
-        assertThat(savedPost.get().getContent()).isEqualTo("content");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(Integer.parseInt(response.getHeaders().getFirst("X-Total-Count"))).isPositive();
+        assertThat(response.getBody()).isEmpty();
     }
 
     @Test
-    void shouldCreatePostComment() {
+    void shouldCreatePostCommentsInBatch() {
         BlogPost post = new BlogPost();
         post.setTitle("Title");
         post.setContent("Content");
 
         var id = blogPostRepository.save(post).getId();
 
-        CommentDTO commentDTO = new CommentDTO("comment");
+        var comments = List.of(new CommentDTO("first"), new CommentDTO(""), new CommentDTO("third"));
 
-        ResponseEntity<CommentDTO> response =
+        ResponseEntity<CommentBatchResultDTO[]> response =
                 restTemplate.postForEntity(
-                        "/posts/"+id+"/comments",
-                        commentDTO,
-                        CommentDTO.class);
+                        "/posts/"+id+"/comments:batch",
+                        comments,
+                        CommentBatchResultDTO[].class);
 
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
-        assertThat(response.getBody().message()).isEqualTo("comment");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(CommentBatchResultDTO::index).containsExactly(0, 1, 2);
+        assertThat(response.getBody()).extracting(CommentBatchResultDTO::status).containsExactly(201, 400, 201);
+        assertThat(response.getBody()[0].comment()).isEqualTo(new CommentDTO("first"));
+        assertThat(response.getBody()[1].errors())
+                .anySatisfy(error -> assertThat(error.message()).isEqualTo("Message cannot be empty"));
+        assertThat(response.getBody()[2].comment()).isEqualTo(new CommentDTO("third"));
 
         ResponseEntity<BlogPostResponseWithCommentsDTO> response2 =
                 restTemplate.getForEntity("/posts/"+id,
                         BlogPostResponseWithCommentsDTO.class);
 
-        assertThat(response2.getBody().comments()).hasSize(1);
-        assertThat(response2.getBody().comments().get(0).message()).isEqualTo("comment");
+        assertThat(response2.getBody().comments()).containsExactly(new CommentDTO("first"), new CommentDTO("third"));
     }
 
     @Test
-    void givenNegativeId_whenGetPost_thenShouldReturnBadRequest() {
-        long invalidId = -1;
+    void shouldEmbedFirstCommentsAndPaginateTheRest() {
+        BlogPost post = new BlogPost();
+        post.setTitle("Title");
+        post.setContent("Content");
 
-        ResponseEntity<ErrorMessage> response =
-                restTemplate.getForEntity(
-                        "/posts/" + invalidId,
-                        ErrorMessage.class);
+        var id = blogPostRepository.save(post).getId();
 
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(response.getBody().status()).isEqualTo(400);
-        assertThat(response.getBody().message()).isEqualTo("Validation failed");
-        assertThat(response.getBody().errors()).hasSize(1);
-        assertThat(response.getBody().errors().get(0).rejectedValue()).isEqualTo(-1);
-        assertThat(response.getBody().errors().get(0).message()).isEqualTo("must be greater than 0");
-    }
+        var comments = IntStream.range(0, 25).mapToObj(i -> new CommentDTO("comment " + i)).toList();
+        restTemplate.postForEntity("/posts/"+id+"/comments:batch", comments, CommentBatchResultDTO[].class);
 
-    // Create Post - Title Validation
-    @Test
-    void givenLongTitle_whenCreatePost_thenShouldReturnBadRequest() {
-        String longTitle = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod";
+        ResponseEntity<BlogPostResponseWithCommentsDTO> detail =
+                restTemplate.getForEntity("/posts/"+id, BlogPostResponseWithCommentsDTO.class);
 
-        var blogPostRequestDTO = new BlogPostRequestDTO(
-                longTitle,
-                "content");
+        assertThat(detail.getBody().comments()).isEqualTo(comments.subList(0, 20));
+        assertThat(detail.getBody().totalComments()).isEqualTo(25);
+        assertThat(detail.getBody().nextCommentsCursor()).isNotNull();
 
-        ResponseEntity<ErrorMessage> response =
-                restTemplate.postForEntity(
-                        "/posts",
-                        blogPostRequestDTO,
-                        ErrorMessage.class);
+        ResponseEntity<CommentDTO[]> firstPage =
+                restTemplate.getForEntity("/posts/"+id+"/comments?after="+detail.getBody().nextCommentsCursor()+"&limit=3",
+                        CommentDTO[].class);
 
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(response.getBody().status()).isEqualTo(400);
-        assertThat(response.getBody().message()).isEqualTo("Validation failed");
-        assertThat(response.getBody().errors()).hasSize(1)
-                .anySatisfy(error -> {
-                    assertThat(error.rejectedValue()).isEqualTo(longTitle);
-                    assertThat(error.message()).isEqualTo("Title must be between 1 and 64 characters");
-                });
-    }
+        assertThat(firstPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(firstPage.getBody()).containsExactlyElementsOf(comments.subList(20, 23));
+        String cursor = firstPage.getHeaders().getFirst("X-Next-Cursor");
+        assertThat(firstPage.getHeaders().getFirst(HttpHeaders.LINK))
+                .contains("/posts/"+id+"/comments?after="+cursor+"&limit=3");
 
-    @Test
-    void givenEmptyTitle_whenCreatePost_thenShouldReturnBadRequest() {
-        var blogPostRequestDTO = new BlogPostRequestDTO(
-                "",
-                "content");
+        ResponseEntity<CommentDTO[]> secondPage =
+                restTemplate.getForEntity("/posts/"+id+"/comments?after="+cursor+"&limit=3", CommentDTO[].class);
 
-        ResponseEntity<ErrorMessage> response =
-                restTemplate.postForEntity(
-                        "/posts",
-                        blogPostRequestDTO,
-                        ErrorMessage.class);
-
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(response.getBody().status()).isEqualTo(400);
-        assertThat(response.getBody().message()).isEqualTo("Validation failed");
-        assertThat(response.getBody().errors()).hasSizeGreaterThanOrEqualTo(1)
-                .anySatisfy(error -> {
-                    assertThat(error.rejectedValue()).isEqualTo("");
-                    assertThat(error.message()).isEqualTo("Title cannot be empty");
-                });
+        assertThat(secondPage.getBody()).containsExactlyElementsOf(comments.subList(23, 25));
+        assertThat(secondPage.getHeaders().containsKey("X-Next-Cursor")).isFalse();
     }
 
-    // Create Post - Content Validation
     @Test
-    void givenLongContent_whenCreatePost_thenShouldReturnBadRequest() {
-        String longContent = """
-                Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut
-                labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation ullamco
-                laboris nisi ut aliquip ex ea commodo consequat. Duis aute irure dolor in reprehenderit
-                """;
-
-        var blogPostRequestDTO = new BlogPostRequestDTO(
-                "title",
-                longContent);
-
+    void givenUnknownPost_whenGetComments_thenShouldReturnNotFound() {
         ResponseEntity<ErrorMessage> response =
-                restTemplate.postForEntity(
-                        "/posts",
-                        blogPostRequestDTO,
-                        ErrorMessage.class);
+                restTemplate.getForEntity("/posts/"+Long.MAX_VALUE+"/comments", ErrorMessage.class);
 
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(response.getBody().status()).isEqualTo(400);
-        assertThat(response.getBody().message()).isEqualTo("Validation failed");
-        assertThat(response.getBody().errors()).hasSize(1)
-                .anySatisfy(error -> {
-                    assertThat(error.rejectedValue()).isEqualTo(longContent);
-                    assertThat(error.message()).isEqualTo("Content must be between 1 and 256 characters");
-                });
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
     @Test
-    void givenEmptyContent_whenCreatePost_thenShouldReturnBadRequest() {
-        var blogPostRequestDTO = new BlogPostRequestDTO(
-                "title",
-                "");
-
-        ResponseEntity<ErrorMessage> response =
-                restTemplate.postForEntity(
-                        "/posts",
-                        blogPostRequestDTO,
-                        ErrorMessage.class);
-
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(response.getBody().status()).isEqualTo(400);
-        assertThat(response.getBody().message()).isEqualTo("Validation failed");
-        assertThat(response.getBody().errors()).hasSizeGreaterThanOrEqualTo(1)
-                .anySatisfy(error -> {
-                    assertThat(error.rejectedValue()).isEqualTo("");
-                    assertThat(error.message()).isEqualTo("Content cannot be empty");
-                });
-    }
+    void shouldCreateCommentsAcrossPostsInBatch() {
+        BlogPost post1 = new BlogPost();
+        post1.setTitle("Title 1");
+        post1.setContent("Content 1");
 
-    // Create Comment - Message Validation
-    @Test
-    void givenLongComment_whenCreateComment_thenShouldReturnBadRequest() {
-        BlogPost post = new BlogPost();
-        post.setTitle("Title");
-        post.setContent("Content");
-        var id = blogPostRepository.save(post).getId();
+        BlogPost post2 = new BlogPost();
+        post2.setTitle("Title 2");
+        post2.setContent("Content 2");
 
-        String longMessage = """
-                Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut
-                labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation ullamco
-                laboris nisi ut aliquip ex ea commodo consequat. Duis aute irure dolor in reprehenderit
-                """;
+        var id1 = blogPostRepository.save(post1).getId();
+        var id2 = blogPostRepository.save(post2).getId();
+        long unknownId = id2 + 1000;
 
-        var commentDTO = new CommentDTO(longMessage);
+        var comments = List.of(
+                new CommentBatchItemDTO(id2, "second post"),
+                new CommentBatchItemDTO(unknownId, "unknown post"),
+                new CommentBatchItemDTO(id1, "first post"));
 
-        ResponseEntity<ErrorMessage> response =
+        ResponseEntity<CommentBatchResultDTO[]> response =
                 restTemplate.postForEntity(
-                        "/posts/"+id+"/comments",
-                        commentDTO,
-                        ErrorMessage.class);
+                        "/posts/comments:batch",
+                        comments,
+                        CommentBatchResultDTO[].class);
 
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(response.getBody().status()).isEqualTo(400);
-        assertThat(response.getBody().message()).isEqualTo("Validation failed");
-        assertThat(response.getBody().errors()).hasSize(1)
-                .anySatisfy(error -> {
-                    assertThat(error.rejectedValue()).isEqualTo(longMessage);
-                    assertThat(error.message()).isEqualTo("Message must be between 1 and 256 characters");
-                });
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(CommentBatchResultDTO::postId).containsExactly(id2, unknownId, id1);
+        assertThat(response.getBody()).extracting(CommentBatchResultDTO::status).containsExactly(201, 404, 201);
+        assertThat(response.getBody()[1].message()).isEqualTo("BlogPost not found");
     }
 
     @Test
-    void givenEmptyComment_whenCreateComment_thenShouldReturnBadRequest() {
-        BlogPost post = new BlogPost();
-        post.setTitle("Title");
-        post.setContent("Content");
-        var id = blogPostRepository.save(post).getId();
-
-        var commentDTO = new CommentDTO("");
-
+    void givenEmptyBatch_whenCreateComments_thenShouldReturnBadRequest() {
         ResponseEntity<ErrorMessage> response =
                 restTemplate.postForEntity(
-                        "/posts/"+id+"/comments",
-                        commentDTO,
+                        "/posts/comments:batch",
+                        List.of(),
                         ErrorMessage.class);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(response.getBody().status()).isEqualTo(400);
         assertThat(response.getBody().message()).isEqualTo("Validation failed");
-        assertThat(response.getBody().errors()).hasSizeGreaterThanOrEqualTo(1)
-                .anySatisfy(error -> {
-                    assertThat(error.rejectedValue()).isEqualTo("");
-                    assertThat(error.message()).isEqualTo("Message cannot be empty");
-                });
     }
 }
@@ -0,0 +1,141 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostImportResultDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.dto.PostSearchResultDTO;
+import com.daalfa.blog.service.exception.ErrorDetails;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.CommentRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BulkTransferIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        commentRepository.deleteAll();
+        blogPostRepository.deleteAll();
+    }
+
+    @Test
+    void givenNdjson_whenImport_thenWritePostsWithCommentsAndReportRejectedLines() {
+        String body = """
+                {"title":"Imported","content":"Bulk content","comments":[{"message":"First"},{"message":"Second zephyr"}]}
+                {"title":"","content":"No title"}
+
+                {"title":"Lonely","content":"Without comments"}
+                """;
+
+        BlogPostImportResultDTO result = importPosts(body).getBody();
+
+        assertThat(result.posts()).isEqualTo(2);
+        assertThat(result.comments()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors()).extracting(ErrorDetails::field).containsOnly("[2].title");
+        assertThat(blogPostRepository.count()).isEqualTo(2);
+        assertThat(commentRepository.count()).isEqualTo(2);
+
+        Long id = blogPostRepository.findAll().stream()
+                .filter(post -> post.getTitle().equals("Imported"))
+                .findFirst().orElseThrow().getId();
+        BlogPostResponseWithCommentsDTO post =
+                restTemplate.getForObject("/posts/" + id, BlogPostResponseWithCommentsDTO.class);
+        assertThat(post.totalComments()).isEqualTo(2);
+        assertThat(post.comments()).extracting(CommentDTO::message).containsExactly("First", "Second zephyr");
+
+        List<PostSearchResultDTO> hits = restTemplate.exchange("/posts/search?q=zephyr", HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<PostSearchResultDTO>>() {}).getBody();
+        assertThat(hits).extracting(PostSearchResultDTO::id).containsExactly(id);
+    }
+
+    @Test
+    void givenMalformedLine_whenImport_thenKeepPreviousLinesAndStop() {
+        String body = """
+                {"title":"Kept","content":"Before the error"}
+                {"title":"Broken",
+                {"title":"Lost","content":"After the error"}
+                """;
+
+        BlogPostImportResultDTO result = importPosts(body).getBody();
+
+        assertThat(result.posts()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors()).singleElement()
+                .satisfies(error -> assertThat(error.message()).startsWith("Malformed JSON"));
+        assertThat(blogPostRepository.findAll()).extracting("title").containsExactly("Kept");
+    }
+
+    @Test
+    void givenExport_whenImportedAgain_thenSamePostsAndComments() throws Exception {
+        importPosts("""
+                {"title":"One","content":"First post","comments":[{"message":"a1"},{"message":"a2"}]}
+                {"title":"Two","content":"Second post"}
+                {"title":"Three","content":"Third post","comments":[{"message":"c1"}]}
+                """);
+
+        ResponseEntity<String> export = restTemplate.getForEntity("/posts:export", String.class);
+        assertThat(export.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(export.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        List<JsonNode> exported = lines(export.getBody());
+        assertThat(exported).extracting(line -> line.get("title").asText()).containsExactly("One", "Two", "Three");
+        assertThat(exported.get(0).get("comments")).hasSize(2);
+        assertThat(exported.get(1).get("comments")).isEmpty();
+
+        commentRepository.deleteAll();
+        blogPostRepository.deleteAll();
+        BlogPostImportResultDTO result = importPosts(export.getBody()).getBody();
+
+        assertThat(result.posts()).isEqualTo(3);
+        assertThat(result.comments()).isEqualTo(3);
+        List<JsonNode> reexported = lines(restTemplate.getForObject("/posts:export", String.class));
+        assertThat(reexported).hasSize(3);
+        for (int i = 0; i < 3; i++) {
+            assertThat(reexported.get(i).get("title")).isEqualTo(exported.get(i).get("title"));
+            assertThat(reexported.get(i).get("content")).isEqualTo(exported.get(i).get("content"));
+            assertThat(reexported.get(i).get("comments")).isEqualTo(exported.get(i).get("comments"));
+        }
+    }
+
+    private ResponseEntity<BlogPostImportResultDTO> importPosts(String ndjson) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        ResponseEntity<BlogPostImportResultDTO> response = restTemplate.postForEntity(
+                "/posts:import", new HttpEntity<>(ndjson, headers), BlogPostImportResultDTO.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response;
+    }
+
+    private List<JsonNode> lines(String ndjson) throws Exception {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,99 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO;
+import com.daalfa.blog.service.dto.CommentBatchItemDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.CommentRepository;
+import com.daalfa.blog.service.service.BlogPostService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CommentCountIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int COMMENTS_PER_THREAD = 25;
+
+    @Autowired
+    private BlogPostService blogPostService;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @BeforeEach
+    void setup() {
+        blogPostRepository.deleteAll();
+        commentRepository.deleteAll();
+    }
+
+    @Test
+    void givenManyThreadsCommentingOnSamePost_whenGetAllPosts_thenCommentCountIsExact() throws Exception {
+        Long id = blogPostService.createPost(new BlogPostRequestDTO("title", "content")).id();
+        Long other = blogPostService.createPost(new BlogPostRequestDTO("other", "content")).id();
+        var start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < COMMENTS_PER_THREAD; i++) {
+                        if (i % 5 == 0) {
+                            // mix in cross-post batches, which lock both posts in id order
+                            blogPostService.createComments(List.of(
+                                    new CommentBatchItemDTO(other, "other " + thread + "-" + i),
+                                    new CommentBatchItemDTO(id, "batch " + thread + "-" + i)));
+                        } else {
+                            blogPostService.createComment(id, new CommentDTO("comment " + thread + "-" + i));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        var summaries = blogPostService.getAllPosts(0L, 10).posts();
+
+        assertThat(summaries).extracting(BlogPostResponseSummaryDTO::comments)
+                .containsExactly(THREADS * COMMENTS_PER_THREAD, THREADS * COMMENTS_PER_THREAD / 5);
+        assertThat(commentRepository.count()).isEqualTo(THREADS * COMMENTS_PER_THREAD * 6L / 5);
+    }
+
+    @Test
+    void givenInvalidItems_whenCreateCommentsAcrossPosts_thenOnlyCreatedCommentsAreCounted() {
+        Long id = blogPostService.createPost(new BlogPostRequestDTO("title", "content")).id();
+
+        blogPostService.createComments(List.of(
+                new CommentBatchItemDTO(id, "valid"),
+                new CommentBatchItemDTO(id, " "),
+                new CommentBatchItemDTO(Long.MAX_VALUE, "unknown post")));
+
+        assertThat(blogPostService.getAllPosts(0L, 10).posts())
+                .extracting(BlogPostResponseSummaryDTO::comments)
+                .containsExactly(1);
+    }
+}
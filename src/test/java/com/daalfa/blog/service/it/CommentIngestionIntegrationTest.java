@@ -0,0 +1,57 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.exception.ErrorMessage;
+import com.daalfa.blog.service.ingestion.ReadYourWritesInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "blog.comments.ingestion.mode=async",
+        "blog.comments.ingestion.max-batch-delay=200ms"
+})
+class CommentIngestionIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void givenAsyncIngestion_whenCreateComments_thenAcceptAndReadYourWrites() {
+        var id = restTemplate.postForEntity("/posts", new BlogPostRequestDTO("title", "content"),
+                BlogPostResponseDTO.class).getBody().id();
+
+        String ticket = IntStream.range(0, 10)
+                .mapToObj(i -> restTemplate.postForEntity("/posts/" + id + "/comments",
+                        new CommentDTO("comment " + i), CommentDTO.class))
+                .peek(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED))
+                .map(response -> response.getHeaders().getFirst(ReadYourWritesInterceptor.TICKET_HEADER))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ReadYourWritesInterceptor.TICKET_HEADER, ticket);
+        ResponseEntity<BlogPostResponseWithCommentsDTO> post = restTemplate.exchange("/posts/" + id,
+                HttpMethod.GET, new HttpEntity<>(headers), BlogPostResponseWithCommentsDTO.class);
+
+        assertThat(post.getBody().totalComments()).isEqualTo(10);
+        assertThat(post.getBody().comments()).last().isEqualTo(new CommentDTO("comment 9"));
+    }
+
+    @Test
+    void givenAsyncIngestion_whenPostDoesNotExist_thenReturnNotFound() {
+        ResponseEntity<ErrorMessage> response = restTemplate.postForEntity("/posts/" + Long.MAX_VALUE + "/comments",
+                new CommentDTO("comment"), ErrorMessage.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,144 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.event.CommentCreatedEvent;
+import com.daalfa.blog.service.stream.CommentStreamHub;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.compression.enabled=true",
+        "server.compression.min-response-size=1KB",
+        "blog.comments.stream.max-pending-events=4"})
+class CommentStreamIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CommentStreamHub hub;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void givenSubscribers_whenCommentCreated_thenEverySubscriberOfThePostReceivesIt() throws Exception {
+        Long id = createPost();
+        Long other = createPost();
+        int before = hub.getSubscriberCount();
+
+        // no Accept header, so the stream is only recognized by its content type
+        BlockingQueue<String> first = subscribe(id);
+        BlockingQueue<String> second = subscribe(id);
+        assertThat(first.poll(10, TimeUnit.SECONDS)).isEqualTo(":subscribed");
+        assertThat(second.poll(10, TimeUnit.SECONDS)).isEqualTo(":subscribed");
+        assertThat(hub.getSubscriberCount()).isEqualTo(before + 2);
+
+        restTemplate.postForEntity("/posts/" + other + "/comments", new CommentDTO("Elsewhere"), CommentDTO.class);
+        restTemplate.postForEntity("/posts/" + id + "/comments", new CommentDTO("Hello"), CommentDTO.class);
+
+        for (BlockingQueue<String> lines : List.of(first, second)) {
+            skipBlankLines(lines);
+            assertThat(lines.poll(10, TimeUnit.SECONDS)).startsWith("id:");
+            assertThat(lines.poll(10, TimeUnit.SECONDS)).isEqualTo("event:comment");
+            assertThat(lines.poll(10, TimeUnit.SECONDS)).isEqualTo("data:{\"message\":\"Hello\"}");
+        }
+    }
+
+    @Test
+    void givenUnknownPost_whenSubscribe_thenNotFound() throws Exception {
+        HttpResponse<Void> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/posts/999999999/comments/stream"))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    void givenSubscriberThatStopsReading_whenCommentsPublished_thenItIsDisconnectedWithoutBlocking() throws Exception {
+        Long id = createPost();
+        int before = hub.getSubscriberCount();
+        double disconnected = meterRegistry.counter("comments.stream.disconnected").count();
+        // large events fill the socket buffers quickly, then the pending queue
+        CommentDTO large = new CommentDTO("x".repeat(1024 * 1024));
+
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /posts/" + id + "/comments/stream HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            await().atMost(Duration.ofSeconds(10)).until(() -> hub.getSubscriberCount() == before + 1);
+
+            long start = System.nanoTime();
+            for (long commentId = 1; commentId <= 100 && hub.getSubscriberCount() > before; commentId++) {
+                hub.onCommentCreated(new CommentCreatedEvent(id, commentId, large));
+            }
+
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+            assertThat(hub.getSubscriberCount()).isEqualTo(before);
+            assertThat(meterRegistry.counter("comments.stream.disconnected").count()).isEqualTo(disconnected + 1);
+        }
+    }
+
+    private Long createPost() {
+        return restTemplate.postForEntity("/posts", new BlogPostRequestDTO("title", "content"),
+                BlogPostResponseDTO.class).getBody().id();
+    }
+
+    private BlockingQueue<String> subscribe(Long id) {
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/posts/" + id + "/comments/stream"))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofLines())
+                .thenAccept(response -> {
+                    assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                            type -> assertThat(type).startsWith("text/event-stream"));
+                    Thread.ofVirtual().start(() -> {
+                        try (Stream<String> body = response.body()) {
+                            body.forEach(lines::add);
+                        }
+                    });
+                });
+        return lines;
+    }
+
+    private static void skipBlankLines(BlockingQueue<String> lines) throws InterruptedException {
+        while (lines.peek() == null || lines.peek().isEmpty()) {
+            if (lines.peek() == null) {
+                Thread.sleep(10);
+            } else {
+                lines.poll();
+            }
+        }
+    }
+}
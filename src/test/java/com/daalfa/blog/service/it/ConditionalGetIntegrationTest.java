@@ -0,0 +1,123 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.CommentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConditionalGetIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        blogPostRepository.deleteAll();
+        commentRepository.deleteAll();
+    }
+
+    @Test
+    void givenMatchingETag_whenGetPost_thenReturnNotModifiedUntilACommentIsAdded() {
+        var id = createPost();
+
+        ResponseEntity<BlogPostResponseWithCommentsDTO> first =
+                restTemplate.getForEntity("/posts/" + id, BlogPostResponseWithCommentsDTO.class);
+        String etag = first.getHeaders().getETag();
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(etag).isEqualTo("W/\"" + id + "-0\"");
+
+        ResponseEntity<BlogPostResponseWithCommentsDTO> second =
+                getIfNoneMatch("/posts/" + id, etag, BlogPostResponseWithCommentsDTO.class);
+
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(second.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(second.getBody()).isNull();
+
+        restTemplate.postForEntity("/posts/" + id + "/comments", new CommentDTO("comment"), CommentDTO.class);
+
+        ResponseEntity<BlogPostResponseWithCommentsDTO> third =
+                getIfNoneMatch("/posts/" + id, etag, BlogPostResponseWithCommentsDTO.class);
+
+        assertThat(third.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(third.getHeaders().getETag()).isEqualTo("W/\"" + id + "-1\"");
+        assertThat(third.getBody().comments()).containsExactly(new CommentDTO("comment"));
+        assertThat(third.getBody().version()).isEqualTo(1);
+    }
+
+    @Test
+    void givenMatchingETag_whenGetAllPosts_thenReturnNotModifiedUntilThePostsChange() {
+        var id = createPost();
+
+        ResponseEntity<BlogPostResponseSummaryDTO[]> first =
+                restTemplate.getForEntity("/posts", BlogPostResponseSummaryDTO[].class);
+        String etag = first.getHeaders().getETag();
+
+        assertThat(etag).isNotNull();
+        assertThat(getIfNoneMatch("/posts", etag, BlogPostResponseSummaryDTO[].class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        restTemplate.postForEntity("/posts/" + id + "/comments", new CommentDTO("comment"), CommentDTO.class);
+
+        ResponseEntity<BlogPostResponseSummaryDTO[]> afterComment =
+                getIfNoneMatch("/posts", etag, BlogPostResponseSummaryDTO[].class);
+
+        assertThat(afterComment.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(afterComment.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(afterComment.getBody()[0].comments()).isEqualTo(1);
+
+        createPost();
+
+        assertThat(getIfNoneMatch("/posts", afterComment.getHeaders().getETag(), BlogPostResponseSummaryDTO[].class)
+                .getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void givenNotModifiedResponses_shouldExposeRatioAndBytesSaved() {
+        var id = createPost();
+        double savedBefore = meterRegistry.get("http.conditional.bytes.saved").counter().count();
+
+        ResponseEntity<String> first = restTemplate.getForEntity("/posts/" + id, String.class);
+        getIfNoneMatch("/posts/" + id, first.getHeaders().getETag(), String.class);
+
+        assertThat(meterRegistry.get("http.conditional.bytes.saved").counter().count() - savedBefore)
+                .isEqualTo(first.getBody().length());
+        assertThat(meterRegistry.get("http.conditional.responses").tag("result", "not_modified").counter().count())
+                .isPositive();
+        assertThat(meterRegistry.get("http.conditional.not_modified.ratio").gauge().value())
+                .isGreaterThan(0).isLessThan(1);
+    }
+
+    private Long createPost() {
+        return restTemplate.postForEntity("/posts", new BlogPostRequestDTO("title", "content"),
+                BlogPostResponseDTO.class).getBody().id();
+    }
+
+    private <T> ResponseEntity<T> getIfNoneMatch(String url, String etag, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), type);
+    }
+}
@@ -0,0 +1,145 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.CommentRepository;
+import com.daalfa.blog.service.service.BlogPostService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.compression.enabled=true",
+        "server.compression.min-response-size=1KB",
+        "server.compression.mime-types=application/json"})
+class FieldSelectionIntegrationTest {
+
+    private static final String LONG_CONTENT = "x".repeat(250);
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BlogPostService blogPostService;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        commentRepository.deleteAll();
+        blogPostRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void givenFields_whenGetPost_thenSelectOnlyTheirColumnsAndSkipComments() throws Exception {
+        var id = blogPostService.createPost(new BlogPostRequestDTO("Title", LONG_CONTENT)).id();
+        blogPostService.createComment(id, new CommentDTO("comment"));
+        statistics.clear();
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/posts/" + id + "?fields=title,id", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"" + id + "-1\"");
+        JsonNode post = objectMapper.readTree(response.getBody());
+        assertThat(post.fieldNames()).toIterable().containsExactly("id", "title");
+        assertThat(post.get("title").asText()).isEqualTo("Title");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getQueries()).singleElement()
+                .satisfies(query -> assertThat(query).doesNotContain("content"));
+    }
+
+    @Test
+    void givenCommentFields_whenGetPost_thenReadCommentPage() throws Exception {
+        var id = blogPostService.createPost(new BlogPostRequestDTO("Title", "Content")).id();
+        blogPostService.createComment(id, new CommentDTO("comment"));
+
+        JsonNode post = objectMapper.readTree(
+                restTemplate.getForObject("/posts/" + id + "?fields=comments,totalComments", String.class));
+
+        assertThat(post.fieldNames()).toIterable().containsExactly("comments", "totalComments");
+        assertThat(post.get("comments").get(0).get("message").asText()).isEqualTo("comment");
+        assertThat(post.get("totalComments").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void givenFields_whenGetAllPosts_thenTrimEveryPostAndKeepFieldsInNextLink() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            blogPostService.createPost(new BlogPostRequestDTO("Title " + i, LONG_CONTENT));
+        }
+        statistics.clear();
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/posts?fields=title&limit=2", String.class);
+
+        List<JsonNode> posts = List.of(objectMapper.readValue(response.getBody(), JsonNode[].class));
+        assertThat(posts).hasSize(2)
+                .allSatisfy(post -> assertThat(post.fieldNames()).toIterable().containsExactly("title"));
+        assertThat(response.getHeaders().getFirst("Link")).contains("fields=title").contains("limit=2");
+        assertThat(statistics.getQueries()).singleElement()
+                .satisfies(query -> assertThat(query).doesNotContain("content"));
+    }
+
+    @Test
+    void givenUnknownField_whenGetPost_thenBadRequest() {
+        var id = blogPostService.createPost(new BlogPostRequestDTO("Title", "Content")).id();
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/posts/" + id + "?fields=id,password", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void givenLargeResponse_whenClientAcceptsGzip_thenCompressAboveThreshold() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            blogPostService.createPost(new BlogPostRequestDTO("Title " + i, LONG_CONTENT));
+        }
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<byte[]> full = client.send(gzipRequest("/posts"), HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> trimmed = client.send(gzipRequest("/posts?fields=id"), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(full.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(full.body().length).isLessThan(1024);
+        assertThat(trimmed.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    private HttpRequest gzipRequest(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept-Encoding", "gzip")
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.CommentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "blog.cache.hot-posts.enabled=true",
+        "blog.cache.hot-posts.threshold=2",
+        "blog.cache.hot-posts.sample-size=1000"})
+class HotPostIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        blogPostRepository.deleteAll();
+        commentRepository.deleteAll();
+    }
+
+    @Test
+    void givenHotPost_whenGetPost_thenPrecomputedJsonIsTheUsualResponse() {
+        var id = createPost();
+        restTemplate.postForEntity("/posts/" + id + "/comments", new CommentDTO("comment"), CommentDTO.class);
+        ResponseEntity<String> usual = restTemplate.getForEntity("/posts/" + id, String.class);
+
+        ResponseEntity<String> hot = getHot(id);
+
+        assertThat(hot.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(hot.getBody()).isEqualTo(usual.getBody());
+        assertThat(hot.getHeaders().getETag()).isEqualTo("W/\"" + id + "-1\"");
+        assertThat(hot.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(hot.getHeaders().getContentLength()).isEqualTo(usual.getBody().length());
+    }
+
+    @Test
+    void givenHotPost_whenCommentIsCreated_thenNextReadSeesCommentAndPostGetsHotAgain() {
+        var id = createPost();
+        getHot(id);
+
+        restTemplate.postForEntity("/posts/" + id + "/comments", new CommentDTO("comment"), CommentDTO.class);
+
+        assertThat(restTemplate.getForObject("/posts/" + id, BlogPostResponseWithCommentsDTO.class).comments())
+                .containsExactly(new CommentDTO("comment"));
+        ResponseEntity<String> hot = getHot(id);
+        assertThat(hot.getHeaders().getETag()).isEqualTo("W/\"" + id + "-1\"");
+        assertThat(hot.getBody()).contains("\"comment\"");
+    }
+
+    @Test
+    void givenHotPostAndMatchingETag_whenGetPost_thenReturnNotModified() {
+        var id = createPost();
+        String etag = getHot(id).getHeaders().getETag();
+        double hits = hits();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> response =
+                restTemplate.exchange("/posts/" + id, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(hits()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void shouldExposeHitRatioAndMemory() {
+        getHot(createPost());
+
+        assertThat(meterRegistry.get("posts.hot.requests").tag("result", "miss").counter().count()).isPositive();
+        assertThat(meterRegistry.get("posts.hot.hit.ratio").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("posts.hot.size").gauge().value()).isPositive();
+        // the sketch of a sample of 1000 takes 1 KiB, the rest is JSON
+        assertThat(meterRegistry.get("posts.hot.memory").gauge().value()).isGreaterThan(1024);
+    }
+
+    // reads the post until it is answered with its precomputed JSON
+    private ResponseEntity<String> getHot(Long id) {
+        ResponseEntity<String>[] response = new ResponseEntity[1];
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            double hits = hits();
+            response[0] = restTemplate.getForEntity("/posts/" + id, String.class);
+            return hits() > hits;
+        });
+        return response[0];
+    }
+
+    private double hits() {
+        return meterRegistry.get("posts.hot.requests").tag("result", "hit").counter().count();
+    }
+
+    private Long createPost() {
+        return restTemplate.postForEntity("/posts", new BlogPostRequestDTO("title", "content"),
+                BlogPostResponseDTO.class).getBody().id();
+    }
+}
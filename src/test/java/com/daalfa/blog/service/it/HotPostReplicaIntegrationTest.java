@@ -0,0 +1,111 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.model.BlogPost;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.CommentRepository;
+import com.daalfa.blog.service.service.BlogPostService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Hot posts with a replica that only gets the primary's data when a test calls {@link #replicate()},
+ * and a replica lag long enough for a stale copy to stay in the post cache for the whole test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "blog.datasource.routing.replicas[0].url=" + HotPostReplicaIntegrationTest.REPLICA_URL,
+        "blog.datasource.routing.replicas[0].username=sa",
+        "blog.datasource.routing.max-replica-lag=1m",
+        "blog.cache.posts.enabled=true",
+        "blog.cache.hot-posts.enabled=true",
+        "blog.cache.hot-posts.threshold=2",
+        "blog.cache.hot-posts.sample-size=1000"})
+class HotPostReplicaIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:hot-replica;DB_CLOSE_DELAY=-1";
+
+    private static final DataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private BlogPostService blogPostService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @BeforeEach
+    void setup() throws Exception {
+        commentRepository.deleteAll();
+        blogPostRepository.deleteAll();
+        replicate();
+    }
+
+    @Test
+    void givenPostCachedFromLaggingReplica_whenPostGetsHot_thenItsJsonIsBuiltFromThePrimary() throws Exception {
+        BlogPost post = new BlogPost();
+        post.setTitle("Title");
+        post.setContent("content");
+        var id = blogPostRepository.save(post).getId();
+        replicate();
+        blogPostService.createComment(id, new CommentDTO("comment"));
+
+        // a client that did not write caches the post from the replica, without the comment
+        assertThat(getPost(id).comments()).isEmpty();
+
+        double hits = hits();
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            getPost(id);
+            return hits() > hits;
+        });
+        assertThat(getPost(id).comments()).containsExactly(new CommentDTO("comment"));
+    }
+
+    private BlogPostResponseWithCommentsDTO getPost(Long id) {
+        return restTemplate.getForObject("/posts/" + id, BlogPostResponseWithCommentsDTO.class);
+    }
+
+    private double hits() {
+        return meterRegistry.get("posts.hot.requests").tag("result", "hit").counter().count();
+    }
+
+    // copies the primary to the replica, as a replication stream would eventually
+    private void replicate() throws Exception {
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            new JdbcTemplate(primary).execute("SCRIPT TO '" + script.toAbsolutePath() + "'");
+            JdbcTemplate replicaTemplate = new JdbcTemplate(replica);
+            replicaTemplate.execute("DROP ALL OBJECTS");
+            replicaTemplate.execute("RUNSCRIPT FROM '" + script.toAbsolutePath() + "'");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+}
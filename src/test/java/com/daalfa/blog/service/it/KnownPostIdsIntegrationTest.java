@@ -0,0 +1,96 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.cache.KnownPostIds;
+import com.daalfa.blog.service.exception.NotFoundException;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.CommentRepository;
+import com.daalfa.blog.service.service.BlogPostService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = "blog.cache.known-posts.negative-ttl=2s")
+class KnownPostIdsIntegrationTest {
+
+    @Autowired
+    private BlogPostService blogPostService;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private KnownPostIds knownPostIds;
+
+    @BeforeEach
+    void setup() {
+        blogPostRepository.deleteAll();
+        commentRepository.deleteAll();
+    }
+
+    @Test
+    void givenPostWrittenOutsideJpa_whenGetPostById_thenFoundWithinNegativeTtlAndKnownAfterwards() {
+        // as another instance or the reactive variant would write it
+        Long id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR post_seq", Long.class);
+        jdbcTemplate.update("INSERT INTO post (id, title, content) VALUES (?, 'title', 'content')", id);
+        double found = lookups("found");
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> knownPostIds.exists(id));
+        assertThat(blogPostService.getPostById(id).title()).isEqualTo("title");
+        assertThat(lookups("found")).isEqualTo(found + 1);
+    }
+
+    @Test
+    void givenMissingPost_whenGetPostByIdRepeatedly_thenDatabaseIsAskedOnce() {
+        // handed out by the sequence, so it may exist, but never inserted
+        long id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR post_seq", Long.class);
+        knownPostIds.reload();
+        double absent = lookups("absent");
+
+        for (int i = 0; i < 3; i++) {
+            assertThatExceptionOfType(NotFoundException.class)
+                    .isThrownBy(() -> blogPostService.getPostById(id));
+        }
+        assertThat(lookups("absent")).isEqualTo(absent + 1);
+    }
+
+    @Test
+    void givenIdsAboveThePostSequence_whenGetPostById_thenDatabaseIsNotAsked() {
+        knownPostIds.reload();
+        long last = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE - INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'POST_SEQ'",
+                Long.class);
+        double absent = lookups("absent");
+        double unallocated = lookups("unallocated");
+
+        // distinct ids, as a client enumerating them would ask for
+        for (long id = last + 1; id <= last + 100; id++) {
+            long unknown = id;
+            assertThatExceptionOfType(NotFoundException.class)
+                    .isThrownBy(() -> blogPostService.getPostById(unknown));
+        }
+        assertThat(lookups("unallocated")).isEqualTo(unallocated + 100);
+        assertThat(lookups("absent")).isEqualTo(absent);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("posts.known.lookups").tag("result", result).counter().count();
+    }
+}
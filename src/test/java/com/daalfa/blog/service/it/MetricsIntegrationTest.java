@@ -0,0 +1,67 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+        "management.metrics.distribution.percentiles-histogram.hikaricp.connections.acquire=true",
+        "blog.metrics.requests.statement-threshold=1"
+})
+@AutoConfigureObservability
+@ExtendWith(OutputCaptureExtension.class)
+class MetricsIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldExposeEndpointServiceHibernateAndPoolMetricsAsPrometheus() {
+        var id = restTemplate.postForEntity("/posts", new BlogPostRequestDTO("title", "content"),
+                BlogPostResponseDTO.class).getBody().id();
+        restTemplate.getForEntity("/posts/" + id, BlogPostResponseWithCommentsDTO.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains(
+                "http_server_requests_seconds_bucket{",
+                "uri=\"/posts/{id}\"",
+                "blog_service_seconds_bucket{",
+                "method=\"getPostById\"",
+                "hibernate_request_statements_sum{method=\"GET\",uri=\"/posts/{id}\"}",
+                "hibernate_request_entities_loaded_sum{method=\"GET\",uri=\"/posts/{id}\"} 0.0",
+                "hibernate_request_collections_fetched_count{",
+                "hikaricp_connections_acquire_seconds_bucket{");
+    }
+
+    @Test
+    void givenRequestAboveStatementThreshold_shouldLogIt(CapturedOutput output) {
+        var id = restTemplate.postForEntity("/posts", new BlogPostRequestDTO("title", "content"),
+                BlogPostResponseDTO.class).getBody().id();
+
+        // the selected columns and the comment page are two statements
+        restTemplate.getForEntity("/posts/" + id + "?fields=title,comments", String.class);
+
+        // written by the asynchronous console appender
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(output).contains("GET /posts/" + id + " ran 2 SQL statements (threshold 1)"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.exception.NotFoundException;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.CommentRepository;
+import com.daalfa.blog.service.service.BlogPostService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@SpringBootTest(properties = "blog.cache.posts.enabled=true")
+class PostDetailCacheIntegrationTest {
+
+    @Autowired
+    private BlogPostService blogPostService;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        blogPostRepository.deleteAll();
+        commentRepository.deleteAll();
+    }
+
+    @Test
+    void givenCachedPost_whenCommentIsCreated_thenNextReadSeesComment() {
+        var id = blogPostService.createPost(new BlogPostRequestDTO("title", "content")).id();
+        assertThat(blogPostService.getPostById(id).comments()).isEmpty();
+
+        blogPostService.createComment(id, new CommentDTO("comment"));
+
+        assertThat(blogPostService.getPostById(id).comments())
+                .containsExactly(new CommentDTO("comment"));
+    }
+
+    @Test
+    void givenConcurrentReaders_whenCommentsAreCreated_thenReadersNeverSeeStaleComments() throws Exception {
+        var id = blogPostService.createPost(new BlogPostRequestDTO("title", "content")).id();
+        var running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        List<Future<?>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 4; i++) {
+                results.add(readers.submit(() -> {
+                    while (running.get()) {
+                        blogPostService.getPostById(id);
+                    }
+                }));
+            }
+
+            for (int i = 1; i <= 50; i++) {
+                blogPostService.createComment(id, new CommentDTO("comment " + i));
+
+                var post = blogPostService.getPostById(id);
+                assertThat(post.totalComments()).isEqualTo(i);
+                assertThat(post.comments()).hasSize(Math.min(i, 20));
+                assertThat(post.nextCommentsCursor() != null).isEqualTo(i > 20);
+            }
+        } finally {
+            running.set(false);
+            readers.shutdown();
+        }
+
+        for (Future<?> result : results) {
+            result.get();
+        }
+    }
+
+    @Test
+    void givenUnknownPost_whenGetPostById_thenNotFoundIsNotCached() {
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> blogPostService.getPostById(Long.MAX_VALUE));
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> blogPostService.getPostById(Long.MAX_VALUE));
+    }
+
+    @Test
+    void shouldExposeCacheMetrics() {
+        var id = blogPostService.createPost(new BlogPostRequestDTO("title", "content")).id();
+        blogPostService.getPostById(id);
+
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "posts").tag("result", "hit").functionCounter())
+                .isNotNull();
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "posts").tag("result", "miss").functionCounter())
+                .isNotNull();
+        assertThat(meterRegistry.find("cache.evictions").tag("cache", "posts").functionCounter())
+                .isNotNull();
+        assertThat(meterRegistry.find("cache.load.duration").tag("cache", "posts").timeGauge())
+                .isNotNull();
+    }
+}
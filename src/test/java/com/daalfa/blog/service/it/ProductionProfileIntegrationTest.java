@@ -0,0 +1,79 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:file:./target/prod-profile/blog")
+@ActiveProfiles("prod")
+class ProductionProfileIntegrationTest {
+
+    private static final Path DATABASE = Path.of("target", "prod-profile");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @BeforeAll
+    static void deleteDatabase() throws Exception {
+        FileSystemUtils.deleteRecursively(DATABASE);
+    }
+
+    @Test
+    void givenProdProfile_whenStarted_thenFileDatabaseSizedPoolAndNoOpenInView() {
+        assertThat(Files.exists(DATABASE.resolve("blog.mv.db"))).isTrue();
+        assertThat(dataSource.getPoolName()).isEqualTo("blog");
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(10);
+        assertThat(dataSource.isAutoCommit()).isFalse();
+        assertThat(entityManagerFactory.getProperties()).containsEntry("hibernate.jdbc.batch_size", "50");
+        assertThat(context.getBeansOfType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    @Test
+    void givenNoOpenInView_whenReadPostsAndComments_thenEverythingIsLoadedUpFront() {
+        BlogPostResponseDTO created = restTemplate.postForObject("/posts",
+                new BlogPostRequestDTO("Title", "Content"), BlogPostResponseDTO.class);
+        restTemplate.postForEntity("/posts/" + created.id() + "/comments", new CommentDTO("comment"), CommentDTO.class);
+
+        ResponseEntity<BlogPostResponseWithCommentsDTO> post =
+                restTemplate.getForEntity("/posts/" + created.id(), BlogPostResponseWithCommentsDTO.class);
+        ResponseEntity<BlogPostResponseSummaryDTO[]> posts =
+                restTemplate.getForEntity("/posts", BlogPostResponseSummaryDTO[].class);
+        ResponseEntity<CommentDTO[]> comments =
+                restTemplate.getForEntity("/posts/" + created.id() + "/comments", CommentDTO[].class);
+
+        assertThat(post.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(post.getBody().comments()).containsExactly(new CommentDTO("comment"));
+        assertThat(posts.getBody()).extracting(BlogPostResponseSummaryDTO::title).contains("Title");
+        assertThat(comments.getBody()).containsExactly(new CommentDTO("comment"));
+    }
+}
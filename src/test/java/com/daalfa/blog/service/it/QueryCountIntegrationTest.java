@@ -0,0 +1,186 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.cache.KnownPostIds;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.exception.NotFoundException;
+import com.daalfa.blog.service.model.BlogPost;
+import com.daalfa.blog.service.model.Comment;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.CommentRepository;
+import com.daalfa.blog.service.service.BlogPostService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@SpringBootTest(properties = "blog.cache.known-posts.negative-ttl=1m")
+class QueryCountIntegrationTest {
+
+    @Autowired
+    private BlogPostService blogPostService;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private KnownPostIds knownPostIds;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        blogPostRepository.deleteAll();
+        commentRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void givenGrowingNumberOfPosts_whenGetAllPosts_thenStatementCountStaysConstant() {
+        seedPosts(1, 3);
+        long statementsForOnePost = countStatements(() -> blogPostService.getAllPosts(0L, 100));
+
+        seedPosts(20, 3);
+        long statementsForManyPosts = countStatements(() -> blogPostService.getAllPosts(0L, 100));
+
+        assertThat(statementsForOnePost).isEqualTo(1);
+        assertThat(statementsForManyPosts).isEqualTo(statementsForOnePost);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void givenPostsWithComments_whenGetAllPosts_thenCommentsAreCounted() {
+        seedPosts(2, 3);
+
+        var result = blogPostService.getAllPosts(0L, 100).posts();
+
+        assertThat(result).hasSize(2)
+                .allSatisfy(summary -> assertThat(summary.comments()).isEqualTo(3));
+    }
+
+    @Test
+    void givenPostWithManyComments_whenGetPostById_thenOneStatementAndNoEntities() {
+        seedPosts(1, 25);
+        Long id = blogPostRepository.findAll().get(0).getId();
+
+        AtomicReference<BlogPostResponseWithCommentsDTO> post = new AtomicReference<>();
+        long statements = countStatements(() -> post.set(blogPostService.getPostById(id)));
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        // the embedded page holds the first 20 comments
+        assertThat(post.get().comments()).hasSize(20)
+                .first().extracting(CommentDTO::message).isEqualTo("Comment 0");
+        assertThat(post.get().totalComments()).isEqualTo(25);
+        assertThat(post.get().nextCommentsCursor()).isNotNull();
+    }
+
+    @Test
+    void givenPostWithoutComments_whenGetPostById_thenOneStatement() {
+        seedPosts(1, 0);
+        Long id = blogPostRepository.findAll().get(0).getId();
+
+        long statements = countStatements(() -> assertThat(blogPostService.getPostById(id).comments()).isEmpty());
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    void givenUnknownId_whenGetPostOrCreateComment_thenOneLookupThenNoStatement() {
+        // handed out by the sequence, so it may have been written by another instance, but never inserted
+        Long unknown = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR post_seq", Long.class);
+        knownPostIds.reload();
+
+        long firstStatements = countStatements(() ->
+                assertThatExceptionOfType(NotFoundException.class).isThrownBy(() -> blogPostService.getPostById(unknown)));
+        long repeatedStatements = countStatements(() -> {
+            assertThatExceptionOfType(NotFoundException.class).isThrownBy(() -> blogPostService.getPostById(unknown));
+            assertThatExceptionOfType(NotFoundException.class)
+                    .isThrownBy(() -> blogPostService.createComment(unknown, new CommentDTO("Comment")));
+        });
+
+        assertThat(firstStatements).isEqualTo(1);
+        assertThat(repeatedStatements).isZero();
+    }
+
+    @Test
+    void givenIdAboveThePostSequence_whenGetPostOrCreateComment_thenNoStatement() {
+        seedPosts(1, 0);
+        knownPostIds.reload();
+        Long unallocated = blogPostRepository.findLastPostSequenceValue() + 1_000_000;
+
+        long statements = countStatements(() -> {
+            assertThatExceptionOfType(NotFoundException.class)
+                    .isThrownBy(() -> blogPostService.getPostById(unallocated));
+            assertThatExceptionOfType(NotFoundException.class)
+                    .isThrownBy(() -> blogPostService.createComment(unallocated, new CommentDTO("Comment")));
+        });
+
+        assertThat(statements).isZero();
+    }
+
+    @Test
+    void givenGrowingBatch_whenCreateComments_thenInsertsAreBatched() {
+        seedPosts(1, 0);
+        Long id = blogPostRepository.findAll().get(0).getId();
+
+        long statementsForFewComments = countStatements(() -> blogPostService.createComments(id, comments(5)));
+        long statementsForManyComments = countStatements(() -> blogPostService.createComments(id, comments(40)));
+
+        // one counter update, at most one pooled sequence call and a single batched insert statement
+        assertThat(statementsForFewComments).isLessThanOrEqualTo(3);
+        assertThat(statementsForManyComments).isLessThanOrEqualTo(3);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(40);
+    }
+
+    private static List<CommentDTO> comments(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new CommentDTO("Comment " + i))
+                .toList();
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedPosts(int posts, int commentsPerPost) {
+        for (int i = 0; i < posts; i++) {
+            BlogPost post = new BlogPost();
+            post.setTitle("Title " + i);
+            post.setContent("Content " + i);
+            post.setCommentCount(commentsPerPost);
+            post = blogPostRepository.save(post);
+
+            for (int j = 0; j < commentsPerPost; j++) {
+                Comment comment = new Comment();
+                comment.setMessage("Comment " + j);
+                comment.setBlogPost(post);
+                commentRepository.save(comment);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.cache.KnownPostIds;
+import com.daalfa.blog.service.dto.CommentBatchItemDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.exception.NotFoundException;
+import com.daalfa.blog.service.service.BlogPostService;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Runs the service read and write paths against a large dataset, records every SQL statement
+ * Hibernate sends and checks the H2 plan of each one for full table scans.
+ */
+@SpringBootTest
+class QueryPlanIntegrationTest {
+
+    private static final int POSTS = 2_000;
+    private static final int COMMENTS_PER_POST = 10;
+
+    @Autowired
+    private BlogPostService blogPostService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private KnownPostIds knownPostIds;
+
+    @Autowired
+    private RecordingStatementInspector statements;
+
+    private long postId;
+
+    @BeforeEach
+    void setup() {
+        clear();
+        jdbcTemplate.update("""
+                INSERT INTO post (id, title, content, comment_count)
+                SELECT NEXT VALUE FOR post_seq, 'Title ' || x, 'Content ' || x, ? FROM SYSTEM_RANGE(1, ?)
+                """, COMMENTS_PER_POST, POSTS);
+        jdbcTemplate.update("""
+                INSERT INTO comment (id, message, post_id)
+                SELECT NEXT VALUE FOR comment_seq, 'Comment ' || x, p.id FROM post p, SYSTEM_RANGE(1, ?)
+                """, COMMENTS_PER_POST);
+        jdbcTemplate.execute("ANALYZE");
+        // inserted without JPA, so the existence bitmap has to read them
+        knownPostIds.reload();
+        postId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM post", Long.class);
+    }
+
+    @AfterEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM comment");
+        jdbcTemplate.update("DELETE FROM post");
+    }
+
+    @Test
+    void givenLargeDataset_whenServiceQueriesRun_thenNoneScansAWholeTable() {
+        statements.clear();
+
+        blogPostService.getPostById(postId);
+        blogPostService.getAllPosts(postId - 100, 50);
+        blogPostService.getComments(postId, 0L, 5);
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> blogPostService.getComments(Long.MAX_VALUE, 0L, 5));
+        blogPostService.createComment(postId, new CommentDTO("comment"));
+        blogPostService.createComments(List.of(new CommentBatchItemDTO(postId, "comment")));
+
+        List<String> queries = statements.recorded().stream()
+                .filter(sql -> !sql.regionMatches(true, 0, "insert", 0, 6))
+                .toList();
+
+        assertThat(queries).hasSizeGreaterThanOrEqualTo(5);
+        assertThat(queries).allSatisfy(sql -> assertThat(explain(sql))
+                .as("plan of %s", sql)
+                .doesNotContainIgnoringCase("tableScan"));
+    }
+
+    @Test
+    void givenLargeDataset_whenCommentsArePaged_thenPostAndIdIndexIsUsed() {
+        statements.clear();
+
+        blogPostService.getComments(postId, 0L, 5);
+
+        assertThat(statements.recorded()).singleElement()
+                .satisfies(sql -> assertThat(explain(sql)).containsIgnoringCase("idx_comment_post_id_id"));
+    }
+
+    private String explain(String sql) {
+        // the plan does not depend on the values, so every parameter is bound to 1
+        Object[] parameters = Collections.nCopies((int) sql.chars().filter(c -> c == '?').count(), 1).toArray();
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+    }
+
+    static class RecordingStatementInspector implements StatementInspector {
+
+        private final Set<String> statements = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        Set<String> recorded() {
+            return Set.copyOf(statements);
+        }
+
+        void clear() {
+            statements.clear();
+        }
+    }
+
+    @TestConfiguration
+    static class StatementInspectorConfiguration {
+
+        @Bean
+        RecordingStatementInspector recordingStatementInspector() {
+            return new RecordingStatementInspector();
+        }
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        HibernatePropertiesCustomizer statementInspectorCustomizer(RecordingStatementInspector inspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.exception.ErrorMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "blog.rate-limit.enabled=true",
+        "blog.rate-limit.read-capacity=3",
+        "blog.rate-limit.read-per-second=0.01",
+        "blog.rate-limit.write-capacity=1",
+        "blog.rate-limit.write-per-second=0.01"})
+class RateLimitIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void givenExhaustedBuckets_whenRequest_thenRejectWithRetryAfterPerEndpointKind() {
+        ResponseEntity<String> created = restTemplate.postForEntity("/posts",
+                new BlogPostRequestDTO("title", "content"), String.class);
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        ResponseEntity<ErrorMessage> rejectedWrite = restTemplate.postForEntity("/posts",
+                new BlogPostRequestDTO("title", "content"), ErrorMessage.class);
+        assertThat(rejectedWrite.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejectedWrite.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("100");
+        assertThat(rejectedWrite.getBody().status()).isEqualTo(429);
+
+        // reads have a bucket of their own
+        for (int i = 0; i < 3; i++) {
+            assertThat(restTemplate.getForEntity("/posts", String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        ResponseEntity<String> rejectedRead = restTemplate.getForEntity("/posts", String.class);
+        assertThat(rejectedRead.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejectedRead.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotNull();
+
+        // only /posts is limited
+        assertThat(restTemplate.getForEntity("/actuator/health", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+        assertThat(meterRegistry.get("http.server.requests.rejected").tag("reason", "rate_limit").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("http.server.requests.concurrency.inflight").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,67 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.reactive.ReactiveBlogApplication;
+import com.daalfa.blog.reactive.ReactiveBlogPostRepository;
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The reactive variant ({@link ReactiveBlogApplication}) against the shared post contract.
+ */
+@SpringBootTest(classes = ReactiveBlogApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.config.name=" + ReactiveBlogApplication.CONFIG_NAME)
+class ReactiveBlogPostIntegrationTest extends AbstractBlogPostIntegrationTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveBlogPostRepository repository;
+
+    @Override
+    void deleteAllPosts() {
+        databaseClient.sql("DELETE FROM comment").then()
+                .then(databaseClient.sql("DELETE FROM post").then())
+                .block();
+    }
+
+    @Override
+    Long savePost(String title, String content) {
+        return repository.insertPost(title, content).block();
+    }
+
+    @Override
+    Optional<BlogPostResponseDTO> findPost(Long id) {
+        return repository.findDetailRows(id, 1)
+                .next()
+                .map(row -> new BlogPostResponseDTO(row.id(), row.title(), row.content()))
+                .blockOptional();
+    }
+
+    @Test
+    void givenMatchingEtag_whenGetPost_thenShouldReturnNotModified() {
+        var id = savePost("Title", "Content");
+        String etag = restTemplate.getForEntity("/posts/"+id, String.class).getHeaders().getETag();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> response =
+                restTemplate.exchange("/posts/"+id, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(etag).isEqualTo("W/\"" + id + "-0\"");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+}
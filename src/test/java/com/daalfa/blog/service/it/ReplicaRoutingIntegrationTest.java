@@ -0,0 +1,180 @@
+package com.daalfa.blog.service.it;
+
+import com.daalfa.blog.service.dto.BlogPostRequestDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.model.BlogPost;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.CommentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against two in-memory H2 databases, the test primary and a replica that only gets the primary's
+ * data when a test calls {@link #replicate()}, so reads that went to the replica cannot see newer writes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "blog.datasource.routing.replicas[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "blog.datasource.routing.replicas[0].username=sa",
+        "blog.datasource.routing.max-replica-lag=5s",
+        "blog.cache.posts.enabled=true"})
+class ReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    private static final DataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @BeforeEach
+    void setup() throws Exception {
+        commentRepository.deleteAll();
+        blogPostRepository.deleteAll();
+        replicate();
+    }
+
+    @Test
+    void givenPostOnlyOnPrimary_whenGetAllPosts_thenReadFromReplica() throws Exception {
+        savePost("Primary only");
+
+        assertThat(titles(getAllPosts(null))).isEmpty();
+
+        replicate();
+
+        assertThat(titles(getAllPosts(null))).containsExactly("Primary only");
+    }
+
+    @Test
+    void givenOwnWrite_whenReadWithCookie_thenReadFromPrimary() {
+        ResponseEntity<BlogPostResponseDTO> created = restTemplate.postForEntity("/posts",
+                new BlogPostRequestDTO("Fresh", "Written to the primary"), BlogPostResponseDTO.class);
+
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        String cookie = created.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertThat(cookie).startsWith("blog-primary-until=").contains("HttpOnly");
+
+        assertThat(titles(getAllPosts(null))).isEmpty();
+        assertThat(titles(getAllPosts(cookie.substring(0, cookie.indexOf(';'))))).containsExactly("Fresh");
+    }
+
+    @Test
+    void givenReadOnlyRequest_whenGetAllPosts_thenNoCookie() {
+        assertThat(getAllPosts(null).getHeaders().get(HttpHeaders.SET_COOKIE)).isNull();
+    }
+
+    @Test
+    void givenPostCachedFromLaggingReplica_whenReplicaCatchesUp_thenCacheIsInvalidatedAgain() throws Exception {
+        var id = savePost("Title");
+        replicate();
+        restTemplate.postForEntity("/posts/" + id + "/comments", new CommentDTO("comment"), CommentDTO.class);
+
+        // a client that did not write loads the post from the replica, without the comment
+        assertThat(getPost(id).comments()).isEmpty();
+        replicate();
+        assertThat(getPost(id).comments()).isEmpty();
+
+        // invalidated again once the lag has passed
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (getPost(id).comments().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(getPost(id).comments()).containsExactly(new CommentDTO("comment"));
+    }
+
+    @Test
+    void givenListingReadFromLaggingReplicaAfterWrite_whenReplicaCatchesUp_thenItsETagIsNoLongerValid() throws Exception {
+        var id = savePost("Title");
+        replicate();
+        restTemplate.postForEntity("/posts/" + id + "/comments", new CommentDTO("comment"), CommentDTO.class);
+
+        // a client that did not write reads the page from the replica, under the stamp of the comment
+        ResponseEntity<BlogPostResponseSummaryDTO[]> stale = getAllPosts(null);
+        assertThat(stale.getBody()[0].comments()).isZero();
+        String etag = stale.getHeaders().getETag();
+        replicate();
+
+        // the stamp advances again once the lag has passed
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        ResponseEntity<BlogPostResponseSummaryDTO[]> revalidated = getAllPostsIfNoneMatch(etag);
+        while (revalidated.getStatusCode() == HttpStatus.NOT_MODIFIED && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            revalidated = getAllPostsIfNoneMatch(etag);
+        }
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(revalidated.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(revalidated.getBody()[0].comments()).isEqualTo(1);
+    }
+
+    private Long savePost(String title) {
+        BlogPost post = new BlogPost();
+        post.setTitle(title);
+        post.setContent("content");
+        return blogPostRepository.save(post).getId();
+    }
+
+    private ResponseEntity<BlogPostResponseSummaryDTO[]> getAllPosts(String cookie) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cookie != null) {
+            headers.add(HttpHeaders.COOKIE, cookie);
+        }
+        return restTemplate.exchange("/posts", HttpMethod.GET, new HttpEntity<>(headers),
+                BlogPostResponseSummaryDTO[].class);
+    }
+
+    private ResponseEntity<BlogPostResponseSummaryDTO[]> getAllPostsIfNoneMatch(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return restTemplate.exchange("/posts", HttpMethod.GET, new HttpEntity<>(headers),
+                BlogPostResponseSummaryDTO[].class);
+    }
+
+    private BlogPostResponseWithCommentsDTO getPost(Long id) {
+        return restTemplate.getForObject("/posts/" + id, BlogPostResponseWithCommentsDTO.class);
+    }
+
+    private static List<String> titles(ResponseEntity<BlogPostResponseSummaryDTO[]> response) {
+        return Arrays.stream(response.getBody()).map(BlogPostResponseSummaryDTO::title).toList();
+    }
+
+    // copies the primary to the replica, as a replication stream would eventually
+    private void replicate() throws Exception {
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            new JdbcTemplate(primary).execute("SCRIPT TO '" + script.toAbsolutePath() + "'");
+            JdbcTemplate replicaTemplate = new JdbcTemplate(replica);
+            replicaTemplate.execute("DROP ALL OBJECTS");
+            replicaTemplate.execute("RUNSCRIPT FROM '" + script.toAbsolutePath() + "'");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+}
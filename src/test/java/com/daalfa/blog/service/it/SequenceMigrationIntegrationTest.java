@@ -0,0 +1,130 @@
+package com.daalfa.blog.service.it;
+
+import liquibase.command.CommandScope;
+import liquibase.command.core.UpdateCommandStep;
+import liquibase.command.core.UpdateCountCommandStep;
+import liquibase.command.core.helpers.DbUrlConnectionArgumentsCommandStep;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the changelog over tables that already have rows, created before the pooled sequences were introduced,
+ * and checks the ids Hibernate's pooled optimizer then hands out, as configured on the entities.
+ */
+class SequenceMigrationIntegrationTest {
+
+    private static final String CHANGELOG = "db/db-changelog.xml";
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int EXISTING_ROWS = 120;
+
+    private Connection connection;
+    private Database database;
+
+    @BeforeEach
+    void setup() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:migration-" + UUID.randomUUID(), "sa", "");
+        database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Test
+    void givenExistingComments_whenMigrated_thenNewCommentIdsDoNotCollide() throws Exception {
+        createTablesAndRows();
+        new CommandScope(UpdateCommandStep.COMMAND_NAME)
+                .addArgumentValue(DbUrlConnectionArgumentsCommandStep.DATABASE_ARG, database)
+                .addArgumentValue(UpdateCommandStep.CHANGELOG_FILE_ARG, CHANGELOG)
+                .execute();
+
+        assertThat(generateIds("comment_seq", 3 * ALLOCATION_SIZE)).allMatch(id -> id > EXISTING_ROWS);
+    }
+
+    @Test
+    void givenExistingPosts_whenMigrated_thenNewPostIdsDoNotCollide() throws Exception {
+        createTablesAndRows();
+        new CommandScope(UpdateCommandStep.COMMAND_NAME)
+                .addArgumentValue(DbUrlConnectionArgumentsCommandStep.DATABASE_ARG, database)
+                .addArgumentValue(UpdateCommandStep.CHANGELOG_FILE_ARG, CHANGELOG)
+                .execute();
+
+        assertThat(generateIds("post_seq", 3 * ALLOCATION_SIZE)).allMatch(id -> id > EXISTING_ROWS);
+    }
+
+    @Test
+    void givenEmptyTables_whenMigrated_thenIdsStartAtOne() throws Exception {
+        new CommandScope(UpdateCommandStep.COMMAND_NAME)
+                .addArgumentValue(DbUrlConnectionArgumentsCommandStep.DATABASE_ARG, database)
+                .addArgumentValue(UpdateCommandStep.CHANGELOG_FILE_ARG, CHANGELOG)
+                .execute();
+
+        assertThat(generateIds("comment_seq", 1)).containsExactly(1L);
+        assertThat(generateIds("post_seq", 1)).containsExactly(1L);
+    }
+
+    // the schema of changeset 1 with rows that got their ids from the identity columns
+    private void createTablesAndRows() throws Exception {
+        new CommandScope(UpdateCountCommandStep.COMMAND_NAME)
+                .addArgumentValue(DbUrlConnectionArgumentsCommandStep.DATABASE_ARG, database)
+                .addArgumentValue(UpdateCountCommandStep.CHANGELOG_FILE_ARG, CHANGELOG)
+                .addArgumentValue(UpdateCountCommandStep.COUNT_ARG, 1)
+                .execute();
+        try (Statement statement = connection.createStatement()) {
+            for (int i = 1; i <= EXISTING_ROWS; i++) {
+                statement.executeUpdate("INSERT INTO post (title, content) VALUES ('title', 'content')");
+                statement.executeUpdate("INSERT INTO comment (message, post_id) VALUES ('message', " + i + ")");
+            }
+        }
+    }
+
+    private Set<Long> generateIds(String sequence, int count) {
+        PooledOptimizer optimizer = new PooledOptimizer(Long.class, ALLOCATION_SIZE);
+        optimizer.injectInitialValue(1);
+        AccessCallback callback = new AccessCallback() {
+            @Override
+            public IntegralDataTypeHolder getNextValue() {
+                try (Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery("SELECT NEXT VALUE FOR " + sequence)) {
+                    resultSet.next();
+                    return IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class)
+                            .initialize(resultSet.getLong(1));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public String getTenantIdentifier() {
+                return null;
+            }
+        };
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            ids.add((Long) optimizer.generate(callback));
+        }
+        assertThat(ids).hasSize(count);
+        return ids;
+    }
+}
@@ -0,0 +1,78 @@
+package com.daalfa.blog.service.json;
+
+import com.daalfa.blog.service.controller.BlogPostController;
+import com.daalfa.blog.service.dto.BlogPostResponseSummaryDTO;
+import com.daalfa.blog.service.dto.BlogPostResponseWithCommentsDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.exception.ErrorMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrebuiltJsonHttpMessageConverterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final PrebuiltJsonHttpMessageConverter converter =
+            new JsonConfiguration().prebuiltJsonHttpMessageConverter(objectMapper);
+    private final MappingJackson2HttpMessageConverter jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+
+    @Test
+    void givenHotEndpoints_whenCanWrite_thenAcceptTheirBodyTypes() {
+        for (String endpoint : List.of("getPostById", "getAllPosts", "getComments")) {
+            Type body = bodyType(endpoint);
+            assertThat(converter.canWrite(body, ResolvableType.forType(body).resolve(), MediaType.APPLICATION_JSON))
+                    .as(endpoint).isTrue();
+        }
+    }
+
+    @Test
+    void givenOtherTypesOrMediaTypes_whenCanWrite_thenLeaveThemToJackson() {
+        Type search = bodyType("searchPosts");
+        assertThat(converter.canWrite(search, List.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(null, ErrorMessage.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(null, BlogPostResponseWithCommentsDTO.class, MediaType.APPLICATION_XML))
+                .isFalse();
+        assertThat(converter.canRead(BlogPostResponseWithCommentsDTO.class, null, MediaType.APPLICATION_JSON))
+                .isFalse();
+    }
+
+    @Test
+    void givenHotBodies_whenWrite_thenSameBytesAndHeadersAsJackson() throws Exception {
+        var post = new BlogPostResponseWithCommentsDTO(42L, "Title \"quoted\"", "Ünïcode content\n",
+                Arrays.asList(new CommentDTO("First"), new CommentDTO(null)), 120, null, 7L);
+        assertSameOutput(post, null);
+        assertSameOutput(List.of(new BlogPostResponseSummaryDTO(1L, "Title", "Content", 3)), bodyType("getAllPosts"));
+        assertSameOutput(List.of(new CommentDTO("Nested")), bodyType("getComments"));
+    }
+
+    private void assertSameOutput(Object body, Type type) throws Exception {
+        MockHttpOutputMessage expected = new MockHttpOutputMessage();
+        jackson.write(body, type, MediaType.APPLICATION_JSON, expected);
+        MockHttpOutputMessage actual = new MockHttpOutputMessage();
+        converter.write(body, type, MediaType.APPLICATION_JSON, actual);
+
+        assertThat(actual.getBodyAsString()).isEqualTo(expected.getBodyAsString());
+        assertThat(actual.getHeaders()).isEqualTo(expected.getHeaders());
+    }
+
+    // the body type Spring MVC resolves for a ResponseEntity returned by a controller method
+    private static Type bodyType(String method) {
+        Method handler = Arrays.stream(BlogPostController.class.getMethods())
+                .filter(m -> m.getName().equals(method))
+                .findFirst().orElseThrow();
+        MethodParameter returnType = new MethodParameter(handler, -1);
+        return ResolvableType.forType(returnType.getGenericParameterType()).getGeneric().getType();
+    }
+}
@@ -0,0 +1,139 @@
+package com.daalfa.blog.service.load;
+
+import com.daalfa.blog.service.BlogServiceApplication;
+import com.daalfa.blog.service.dto.BlogPostImportResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports a million rows (posts plus comments) through {@code POST /posts:import} into a file
+ * database and exports them again, with the heap capped by the {@code load-test} profile
+ * ({@code -Xmx256m}, change with {@code -Dload.heap=}). The NDJSON body is generated while it
+ * is sent, so neither side ever holds the file in memory.
+ * <p>
+ * Run with {@code mvn test -Pload-test}; tune with {@code -Dload.import.posts=}. The timings are
+ * printed and written to {@code target/load-test/bulk-import.md}.
+ */
+@Tag("load")
+class BulkImportLoadTest {
+
+    private static final int POSTS = Integer.getInteger("load.import.posts", 100_000);
+    private static final int COMMENTS_PER_POST = 9;
+    private static final long MAX_HEAP_BYTES = 512L * 1024 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void importAndExportMillionRowsWithinFixedHeap() throws Exception {
+        assertThat(Runtime.getRuntime().maxMemory())
+                .as("the heap must be capped with -Xmx")
+                .isLessThanOrEqualTo(MAX_HEAP_BYTES);
+
+        Path database = Path.of("target", "load-test", "bulk-import");
+        FileSystemUtils.deleteRecursively(database);
+        // command line arguments, to take precedence over the test application.properties
+        String[] args = {
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:file:./" + database.resolve("blog").toString().replace('\\', '/'),
+                "--spring.liquibase.change-log=classpath:db/db-changelog.xml",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.root=WARN"};
+
+        try (ConfigurableApplicationContext context =
+                     new SpringApplicationBuilder(BlogServiceApplication.class).run(args)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+
+            long start = System.nanoTime();
+            HttpResponse<String> imported = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/posts:import"))
+                            .header("Content-Type", MediaType.APPLICATION_NDJSON_VALUE)
+                            .POST(HttpRequest.BodyPublishers.ofInputStream(BulkImportLoadTest::ndjson))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            double importSeconds = (System.nanoTime() - start) / 1e9;
+
+            assertThat(imported.statusCode()).isEqualTo(200);
+            BlogPostImportResultDTO result = objectMapper.readValue(imported.body(), BlogPostImportResultDTO.class);
+            assertThat(result.posts()).isEqualTo(POSTS);
+            assertThat(result.comments()).isEqualTo((long) POSTS * COMMENTS_PER_POST);
+            assertThat(result.rejected()).isZero();
+
+            start = System.nanoTime();
+            HttpResponse<Stream<String>> exported = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/posts:export")).build(),
+                    HttpResponse.BodyHandlers.ofLines());
+            long lines;
+            try (Stream<String> body = exported.body()) {
+                lines = body.count();
+            }
+            double exportSeconds = (System.nanoTime() - start) / 1e9;
+            assertThat(lines).isEqualTo(POSTS);
+
+            long rows = result.posts() + result.comments();
+            String report = String.join("\n",
+                    "| rows | import (s) | import rows/s | export (s) | max heap (MiB) | peak heap used (MiB) |",
+                    "|---|---|---|---|---|---|",
+                    "| %d | %.1f | %.0f | %.1f | %d | %d |".formatted(rows, importSeconds, rows / importSeconds,
+                            exportSeconds, Runtime.getRuntime().maxMemory() >> 20, peakHeapUsed() >> 20));
+            System.out.println(report);
+            Path output = Path.of("target", "load-test", "bulk-import.md");
+            Files.writeString(output, report + "\n");
+        }
+    }
+
+    // one post per line, generated as the request body is read
+    private static InputStream ndjson() {
+        Enumeration<InputStream> lines = new Enumeration<>() {
+            private int post;
+
+            @Override
+            public boolean hasMoreElements() {
+                return post < POSTS;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                post++;
+                StringBuilder line = new StringBuilder("{\"title\":\"Imported post\",\"content\":\"Generated content\",\"comments\":[");
+                for (int i = 0; i < COMMENTS_PER_POST; i++) {
+                    line.append(i == 0 ? "" : ",").append("{\"message\":\"Generated comment\"}");
+                }
+                line.append("]}\n");
+                return new ByteArrayInputStream(line.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        return new SequenceInputStream(lines);
+    }
+
+    private static long peakHeapUsed() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .map(MemoryPoolMXBean::getPeakUsage)
+                .mapToLong(MemoryUsage::getUsed)
+                .sum();
+    }
+}
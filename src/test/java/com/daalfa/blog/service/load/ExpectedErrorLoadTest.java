@@ -0,0 +1,83 @@
+package com.daalfa.blog.service.load;
+
+import com.daalfa.blog.service.BlogServiceApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Floods the service with requests for missing posts (404) and with invalid posts (400), and
+ * compares the request rate when every error is logged on the request thread, as with Spring
+ * Boot's default console logging, with the asynchronous appender of {@code logback-spring.xml}
+ * and the throttled log of expected errors.
+ * <p>
+ * Run with {@code mvn test -Pload-test}; tune with {@code -Dload.concurrency=} and
+ * {@code -Dload.duration=} (seconds). The table is printed and written to
+ * {@code target/load-test/expected-errors.md}.
+ */
+@Tag("load")
+class ExpectedErrorLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration", 10));
+
+    @Test
+    void compareSynchronousAndThrottledErrorLogging() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(LoadGenerator.Result.header());
+
+        for (String mode : List.of("sync, every error", "async, throttled")) {
+            for (LoadGenerator.Result result : runScenarios(mode)) {
+                assertThat(result.requests()).isPositive();
+                assertThat(result.errors()).isZero();
+                report.add(result.toString());
+            }
+        }
+
+        String table = String.join("\n", report);
+        System.out.println(table);
+        Path output = Path.of("target", "load-test", "expected-errors.md");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, table + "\n");
+    }
+
+    private List<LoadGenerator.Result> runScenarios(String mode) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BlogServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-errors-" + mode.hashCode(),
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "blog.rate-limit.enabled=false");
+        if (mode.startsWith("sync")) {
+            builder.properties(
+                    "logging.config=classpath:sync-console-logback.xml",
+                    "blog.logging.expected-errors.throttled=false");
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            LoadGenerator generator = new LoadGenerator(CONCURRENCY, DURATION);
+
+            // warm up the JIT before measuring
+            new LoadGenerator(CONCURRENCY, Duration.ofSeconds(2))
+                    .run("warm-up", n -> LoadGenerator.get(baseUrl + "/posts/" + (1_000_000 + n)), status -> true);
+
+            return List.of(
+                    generator.run(mode + " GET /posts/{missing}",
+                            n -> LoadGenerator.get(baseUrl + "/posts/" + (1_000_000 + n)),
+                            status -> status == 404),
+                    generator.run(mode + " POST /posts invalid",
+                            n -> LoadGenerator.post(baseUrl + "/posts", "{\"title\":\"\",\"content\":\"\"}"),
+                            status -> status == 400));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.daalfa.blog.service.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Closed-loop HTTP load generator: a fixed number of virtual-thread clients send requests
+ * back to back for a given duration and record the latency of every successful request.
+ */
+class LoadGenerator {
+
+    private final HttpClient client;
+    private final int concurrency;
+    private final Duration duration;
+
+    LoadGenerator(int concurrency, Duration duration) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.concurrency = concurrency;
+        this.duration = duration;
+    }
+
+    /**
+     * Runs the scenario; {@code requests} builds the request for the n-th call of a client.
+     */
+    Result run(String name, IntFunction<HttpRequest> requests) throws Exception {
+        return run(name, requests, status -> status < 400);
+    }
+
+    /**
+     * Runs the scenario, counting the responses whose status is not {@code expected} as errors.
+     */
+    Result run(String name, IntFunction<HttpRequest> requests, IntPredicate expected) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Recorder>> workers = new ArrayList<>(concurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> {
+                    Recorder recorder = new Recorder();
+                    for (int n = 0; System.nanoTime() < deadline; n++) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(requests.apply(n),
+                                HttpResponse.BodyHandlers.discarding());
+                        long elapsed = System.nanoTime() - start;
+                        if (expected.test(response.statusCode())) {
+                            recorder.record(elapsed);
+                        } else {
+                            recorder.errors++;
+                        }
+                    }
+                    return recorder;
+                }));
+            }
+        }
+
+        Recorder total = new Recorder();
+        for (Future<Recorder> worker : workers) {
+            total.merge(worker.get());
+        }
+        return total.result(name, duration);
+    }
+
+    static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    static HttpRequest post(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    record Result(String name, long requests, long errors, double throughput, double p50Millis, double p99Millis) {
+
+        @Override
+        public String toString() {
+            return "| %-40s | %9d | %6d | %10.1f | %8.2f | %8.2f |"
+                    .formatted(name, requests, errors, throughput, p50Millis, p99Millis);
+        }
+
+        static String header() {
+            return "| %-40s |  requests | errors |    req/s   | p50 (ms) | p99 (ms) |\n".formatted("scenario")
+                    + "|" + "-".repeat(42) + "|-----------|--------|------------|----------|----------|";
+        }
+    }
+
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long nanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.latencies[i]);
+            }
+            errors += other.errors;
+        }
+
+        Result result(String name, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new Result(name, size, errors,
+                    size / (duration.toMillis() / 1000.0),
+                    percentile(sorted, 0.50),
+                    percentile(sorted, 0.99));
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.daalfa.blog.service.load;
+
+import com.daalfa.blog.reactive.ReactiveBlogApplication;
+import com.daalfa.blog.service.BlogServiceApplication;
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares throughput, p99 latency and the peak number of platform threads of the four post endpoints
+ * served by the servlet variant (Spring MVC on Tomcat, JPA) and by the reactive variant
+ * ({@link ReactiveBlogApplication}, WebFlux on Netty, R2DBC), each against its own in-memory H2 database.
+ * The load generator runs on virtual threads, so the platform threads counted are mostly the server's.
+ * <p>
+ * Run with {@code mvn test -Pload-test}; tune with {@code -Dload.concurrency=} and
+ * {@code -Dload.duration=} (seconds). The tables are printed and written to
+ * {@code target/load-test/reactive.md}.
+ */
+@Tag("load")
+class ReactiveLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 256);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration", 10));
+    private static final int POSTS = 100;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compareServletAndReactive() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(LoadGenerator.Result.header());
+        List<String> threadReport = new ArrayList<>(List.of(
+                "| variant  | peak platform threads |",
+                "|----------|-----------------------|"));
+
+        for (String variant : List.of("servlet", "reactive")) {
+            try (ConfigurableApplicationContext context = start(variant)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                threads.resetPeakThreadCount();
+                for (LoadGenerator.Result result : runScenarios(variant, baseUrl)) {
+                    assertThat(result.requests()).isPositive();
+                    report.add(result.toString());
+                }
+                threadReport.add("| %-8s | %21d |".formatted(variant, threads.getPeakThreadCount()));
+            }
+        }
+
+        String tables = String.join("\n", report) + "\n\n" + String.join("\n", threadReport);
+        System.out.println(tables);
+        Path output = Path.of("target", "load-test", "reactive.md");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, tables + "\n");
+    }
+
+    // command line arguments, to take precedence over the properties files
+    private static ConfigurableApplicationContext start(String variant) {
+        if (variant.equals("reactive")) {
+            return new SpringApplicationBuilder(ReactiveBlogApplication.class)
+                    .properties("spring.config.name=" + ReactiveBlogApplication.CONFIG_NAME)
+                    .run("--server.port=0",
+                            "--spring.r2dbc.url=r2dbc:h2:mem:///load-reactive?options=DB_CLOSE_DELAY=-1",
+                            "--spring.liquibase.url=jdbc:h2:mem:load-reactive;DB_CLOSE_DELAY=-1",
+                            "--logging.level.root=WARN");
+        }
+        return new SpringApplicationBuilder(BlogServiceApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-servlet",
+                        "--logging.level.root=WARN");
+    }
+
+    private static List<LoadGenerator.Result> runScenarios(String variant, String baseUrl) throws Exception {
+        LoadGenerator generator = new LoadGenerator(CONCURRENCY, DURATION);
+
+        List<Long> ids = seed(baseUrl);
+        // warm up the JIT and the connection pool before measuring
+        new LoadGenerator(CONCURRENCY, Duration.ofSeconds(2))
+                .run("warm-up", n -> LoadGenerator.get(baseUrl + "/posts/" + ids.get(n % POSTS)));
+
+        return List.of(
+                generator.run(variant + " GET /posts/{id}",
+                        n -> LoadGenerator.get(baseUrl + "/posts/" + ids.get(n % POSTS))),
+                generator.run(variant + " GET /posts",
+                        n -> LoadGenerator.get(baseUrl + "/posts")),
+                generator.run(variant + " POST /posts",
+                        n -> LoadGenerator.post(baseUrl + "/posts",
+                                "{\"title\":\"Title\",\"content\":\"Content\"}")),
+                generator.run(variant + " POST /posts/{id}/comments",
+                        n -> LoadGenerator.post(baseUrl + "/posts/" + ids.get(n % POSTS) + "/comments",
+                                "{\"message\":\"Comment\"}")));
+    }
+
+    // the variants number posts differently, so the scenarios use the ids the seeding got back
+    private static List<Long> seed(String baseUrl) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        List<Long> ids = new ArrayList<>(POSTS);
+        for (int i = 0; i < POSTS; i++) {
+            HttpResponse<String> response = client.send(
+                    LoadGenerator.post(baseUrl + "/posts", "{\"title\":\"Title\",\"content\":\"Content\"}"),
+                    HttpResponse.BodyHandlers.ofString());
+            ids.add(OBJECT_MAPPER.readValue(response.body(), BlogPostResponseDTO.class).id());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,94 @@
+package com.daalfa.blog.service.load;
+
+import com.daalfa.blog.service.BlogServiceApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares throughput and p99 latency of the four post endpoints when requests are served by
+ * Tomcat's platform-thread pool and by virtual threads ({@code virtual-threads} profile),
+ * each against its own in-memory H2 database.
+ * <p>
+ * Run with {@code mvn test -Pload-test}; tune with {@code -Dload.concurrency=} and
+ * {@code -Dload.duration=} (seconds). The table is printed and written to
+ * {@code target/load-test/virtual-threads.md}.
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 256);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration", 10));
+    private static final int POSTS = 100;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(LoadGenerator.Result.header());
+
+        for (String mode : List.of("platform-threads", "virtual-threads")) {
+            for (LoadGenerator.Result result : runScenarios(mode)) {
+                assertThat(result.requests()).isPositive();
+                report.add(result.toString());
+            }
+        }
+
+        String table = String.join("\n", report);
+        System.out.println(table);
+        Path output = Path.of("target", "load-test", "virtual-threads.md");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, table + "\n");
+    }
+
+    private List<LoadGenerator.Result> runScenarios(String mode) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BlogServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode,
+                        "logging.level.root=WARN");
+        if (mode.equals("virtual-threads")) {
+            builder.profiles("virtual-threads");
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            LoadGenerator generator = new LoadGenerator(CONCURRENCY, DURATION);
+
+            seed(baseUrl);
+            // warm up the JIT and the connection pool before measuring
+            new LoadGenerator(CONCURRENCY, Duration.ofSeconds(2))
+                    .run("warm-up", n -> LoadGenerator.get(baseUrl + "/posts/" + (n % POSTS + 1)));
+
+            return List.of(
+                    generator.run(mode + " GET /posts/{id}",
+                            n -> LoadGenerator.get(baseUrl + "/posts/" + (n % POSTS + 1))),
+                    generator.run(mode + " GET /posts",
+                            n -> LoadGenerator.get(baseUrl + "/posts")),
+                    generator.run(mode + " POST /posts",
+                            n -> LoadGenerator.post(baseUrl + "/posts",
+                                    "{\"title\":\"Title\",\"content\":\"Content\"}")),
+                    generator.run(mode + " POST /posts/{id}/comments",
+                            n -> LoadGenerator.post(baseUrl + "/posts/" + (n % POSTS + 1) + "/comments",
+                                    "{\"message\":\"Comment\"}")));
+        }
+    }
+
+    private static void seed(String baseUrl) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        for (int i = 0; i < POSTS; i++) {
+            client.send(LoadGenerator.post(baseUrl + "/posts", "{\"title\":\"Title\",\"content\":\"Content\"}"),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.daalfa.blog.service.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+
+class MetricsConfigurationTest {
+
+    private final MetricsConfiguration configuration = new MetricsConfiguration();
+
+    @Test
+    void givenNoIntegratorProvider_whenCustomized_thenOnlyTheRequestListenerIsIntegrated() {
+        Map<String, Object> properties = new HashMap<>();
+
+        configuration.requestStatisticsCustomizer().customize(properties);
+
+        assertThat(integrators(properties)).singleElement().isInstanceOf(HibernateRequestListener.class);
+    }
+
+    @Test
+    void givenIntegratorProvider_whenCustomized_thenItsIntegratorsAreKeptFirst() {
+        Integrator existing = mock(Integrator.class);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(existing));
+
+        configuration.requestStatisticsCustomizer().customize(properties);
+
+        List<Integrator> integrators = integrators(properties);
+        assertThat(integrators).hasSize(2);
+        assertThat(integrators.get(0)).isSameAs(existing);
+        assertThat(integrators.get(1)).isInstanceOf(HibernateRequestListener.class);
+    }
+
+    @Test
+    void givenStatementInspector_whenCustomized_thenItRunsFirst() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> sql + " /* tagged */");
+
+        configuration.requestStatisticsCustomizer().customize(properties);
+
+        StatementInspector inspector = (StatementInspector) properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+        assertThat(inspector.inspect("select 1")).isEqualTo("select 1 /* tagged */");
+    }
+
+    @Test
+    void givenStatementInspectorClassName_whenCustomized_thenItIsInstantiatedAndRunsFirst() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.STATEMENT_INSPECTOR, TaggingStatementInspector.class.getName());
+
+        configuration.requestStatisticsCustomizer().customize(properties);
+
+        StatementInspector inspector = (StatementInspector) properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+        assertThat(inspector.inspect("select 1")).isEqualTo("select 1 /* tagged */");
+    }
+
+    @Test
+    void givenIntegratorProviderClass_whenCustomized_thenItIsInstantiatedAndItsIntegratorsKept() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(JpaSettings.INTEGRATOR_PROVIDER, EmptyIntegratorProvider.class);
+
+        configuration.requestStatisticsCustomizer().customize(properties);
+
+        assertThat(integrators(properties)).singleElement().isInstanceOf(HibernateRequestListener.class);
+    }
+
+    @Test
+    void givenStatementInspectorOfWrongType_whenCustomized_thenFailsAtOnce() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.STATEMENT_INSPECTOR, String.class.getName());
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> configuration.requestStatisticsCustomizer().customize(properties))
+                .withMessageContaining(AvailableSettings.STATEMENT_INSPECTOR);
+    }
+
+    @Test
+    void givenUnknownStatementInspectorClass_whenCustomized_thenFailsAtOnce() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.STATEMENT_INSPECTOR, "com.example.Missing");
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> configuration.requestStatisticsCustomizer().customize(properties))
+                .withMessageContaining("com.example.Missing");
+    }
+
+    private static List<Integrator> integrators(Map<String, Object> properties) {
+        return ((IntegratorProvider) properties.get(JpaSettings.INTEGRATOR_PROVIDER)).getIntegrators();
+    }
+
+    public static class TaggingStatementInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            return sql + " /* tagged */";
+        }
+    }
+
+    public static class EmptyIntegratorProvider implements IntegratorProvider {
+
+        @Override
+        public List<Integrator> getIntegrators() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.daalfa.blog.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AdaptiveConcurrencyLimiter limiter =
+            new AdaptiveConcurrencyLimiter(new RateLimitProperties.Concurrency(true, 10, 2, 100, 2.0));
+
+    @Test
+    void givenLimitReached_whenTryAcquire_thenRejectUntilAPermitIsReleased() {
+        for (int i = 1; i <= 10; i++) {
+            assertThat(limiter.tryAcquire()).isEqualTo(i);
+        }
+
+        assertThat(limiter.tryAcquire()).isEqualTo(-1);
+
+        limiter.release(MILLIS, 10);
+        assertThat(limiter.tryAcquire()).isPositive();
+    }
+
+    @Test
+    void givenSteadyLatencyUnderLoad_whenRelease_thenLimitGrows() {
+        saturate(200, 5 * MILLIS);
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    void givenFewRequestsInFlight_whenRelease_thenLimitIsUnchanged() {
+        for (int i = 0; i < 200; i++) {
+            limiter.release(5 * MILLIS, 1);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void givenLatencyRisingWellAboveBaseline_whenRelease_thenLimitShrinks() {
+        saturate(200, 5 * MILLIS);
+        int grown = limiter.getLimit();
+
+        saturate(200, 100 * MILLIS);
+
+        assertThat(limiter.getLimit()).isLessThanOrEqualTo(grown / 4);
+    }
+
+    // every sample comes from a request that found the limit in use
+    private void saturate(int samples, long latencyNanos) {
+        for (int i = 0; i < samples; i++) {
+            limiter.tryAcquire();
+            limiter.release(latencyNanos, limiter.getLimit());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.daalfa.blog.service.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private final AdaptiveConcurrencyLimiter limiter = mock(AdaptiveConcurrencyLimiter.class);
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new RateLimitProperties(true, 10, 0.01, 1, 0.01, 100,
+                    new RateLimitProperties.Concurrency(true, 20, 4, 200, 2.0)),
+            limiter, new ObjectMapper(), new SimpleMeterRegistry());
+
+    @Test
+    void givenImportAndExport_whenFiltered_thenTheyAreLimited() throws Exception {
+        when(limiter.tryAcquire()).thenReturn(1);
+
+        assertThat(send("POST", "/posts:import").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(send("POST", "/posts:import").getStatus()).isEqualTo(429);
+        assertThat(send("GET", "/posts:export").getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        verify(limiter, never()).release(anyLong(), anyInt());
+    }
+
+    @Test
+    void givenStreamingResponse_whenFiltered_thenPermitIsReturnedWithoutLatencySample() throws Exception {
+        when(limiter.tryAcquire()).thenReturn(1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts");
+        request.addHeader("Accept", MediaType.APPLICATION_NDJSON_VALUE);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                res.setContentType(MediaType.APPLICATION_NDJSON_VALUE));
+
+        verify(limiter).release();
+        verify(limiter, never()).release(anyLong(), anyInt());
+    }
+
+    @Test
+    void givenJsonResponse_whenFiltered_thenLatencyIsSampled() throws Exception {
+        when(limiter.tryAcquire()).thenReturn(1);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/posts/1"), new MockHttpServletResponse(), (req, res) ->
+                res.setContentType(MediaType.APPLICATION_JSON_VALUE));
+
+        verify(limiter).release(anyLong(), anyInt());
+        verify(limiter, never()).release();
+    }
+
+    @Test
+    void givenOtherPath_whenFiltered_thenNotLimited() throws Exception {
+        send("GET", "/actuator/health");
+
+        verify(limiter, never()).tryAcquire();
+    }
+
+    private MockHttpServletResponse send(String method, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
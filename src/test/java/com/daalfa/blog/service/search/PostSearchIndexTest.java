@@ -0,0 +1,124 @@
+package com.daalfa.blog.service.search;
+
+import com.daalfa.blog.service.dto.BlogPostResponseDTO;
+import com.daalfa.blog.service.dto.CommentDTO;
+import com.daalfa.blog.service.dto.PostSearchResultDTO;
+import com.daalfa.blog.service.event.CommentCreatedEvent;
+import com.daalfa.blog.service.event.PostCreatedEvent;
+import com.daalfa.blog.service.repository.BlogPostRepository;
+import com.daalfa.blog.service.repository.CommentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostSearchIndexTest {
+
+    @Mock
+    private BlogPostRepository blogPostRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PostSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = newIndex(null, meterRegistry);
+        index.onPostCreated(new PostCreatedEvent(new BlogPostResponseDTO(1L, "Spring Boot caching", "All about caches")));
+        index.onPostCreated(new PostCreatedEvent(new BlogPostResponseDTO(2L, "Java records", "Records and caching")));
+        index.onPostCreated(new PostCreatedEvent(new BlogPostResponseDTO(3L, "Gardening", "Tomatoes")));
+    }
+
+    @Test
+    void givenText_whenTokenize_thenSplitLowercaseAndDropShortTokens() {
+        assertThat(PostSearchIndex.tokenize("Hello, World! a Ünïcode-text 42"))
+                .containsExactly("hello", "world", "ünïcode", "text", "42");
+    }
+
+    @Test
+    void givenTitleMatch_whenSearch_thenRankItFirst() {
+        var page = index.search("caching", 0, 10);
+
+        assertThat(page.total()).isEqualTo(2);
+        assertThat(page.results()).extracting(PostSearchResultDTO::id).containsExactly(1L, 2L);
+        assertThat(page.results().get(0).title()).isEqualTo("Spring Boot caching");
+    }
+
+    @Test
+    void givenComment_whenSearch_thenFindItsPost() {
+        index.onCommentCreated(new CommentCreatedEvent(3L, 10L, new CommentDTO("Great tomatoes recipe")));
+
+        var page = index.search("recipe", 0, 10);
+
+        assertThat(page.results()).extracting(PostSearchResultDTO::id).containsExactly(3L);
+    }
+
+    @Test
+    void givenOffsetAndLimit_whenSearch_thenReturnPage() {
+        var page = index.search("caching records", 1, 1);
+
+        assertThat(page.total()).isEqualTo(2);
+        assertThat(page.results()).extracting(PostSearchResultDTO::id).containsExactly(1L);
+    }
+
+    @Test
+    void givenUnknownTerm_whenSearch_thenReturnEmptyPage() {
+        var page = index.search("kubernetes", 0, 10);
+
+        assertThat(page.total()).isZero();
+        assertThat(page.results()).isEmpty();
+    }
+
+    @Test
+    void shouldExposeFootprintAndLatencyMetrics() {
+        index.search("caching", 0, 10);
+
+        assertThat(meterRegistry.get("search.index.documents").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("search.index.terms").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("search.index.memory").gauge().value()).isEqualTo(index.estimatedMemoryBytes());
+        assertThat(meterRegistry.get("search.query").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenSnapshot_whenStarting_thenOnlyIndexNewRows(@TempDir Path directory) {
+        Path snapshot = directory.resolve("search-index.bin");
+        index.onCommentCreated(new CommentCreatedEvent(3L, 10L, new CommentDTO("Great tomatoes recipe")));
+        index.writeSnapshot(snapshot);
+
+        when(blogPostRepository.streamTextsAfter(anyLong())).thenReturn(Stream.empty());
+        when(commentRepository.streamTextsAfter(anyLong())).thenReturn(Stream.empty());
+
+        PostSearchIndex restored = newIndex(snapshot, new SimpleMeterRegistry());
+        restored.afterSingletonsInstantiated();
+
+        assertThat(restored.search("recipe", 0, 10)).isEqualTo(index.search("recipe", 0, 10));
+        assertThat(restored.search("caching", 0, 10)).isEqualTo(index.search("caching", 0, 10));
+        assertThat(restored.estimatedMemoryBytes()).isEqualTo(index.estimatedMemoryBytes());
+        verify(blogPostRepository).streamTextsAfter(3L);
+        verify(commentRepository).streamTextsAfter(10L);
+    }
+
+    private PostSearchIndex newIndex(Path snapshot, SimpleMeterRegistry registry) {
+        return new PostSearchIndex(blogPostRepository, commentRepository, transactionManager,
+                new SearchProperties(snapshot), registry);
+    }
+}
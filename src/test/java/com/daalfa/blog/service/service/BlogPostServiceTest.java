@@ -1,24 +1,43 @@
 package com.daalfa.blog.service.service;
 
+import com.daalfa.blog.service.cache.KnownPostIds;
+import com.daalfa.blog.service.cache.PostCacheProperties;
+import com.daalfa.blog.service.cache.PostDetailCache;
 import com.daalfa.blog.service.dto.*;
+import com.daalfa.blog.service.event.CommentCreatedEvent;
+import com.daalfa.blog.service.event.PostCreatedEvent;
 import com.daalfa.blog.service.exception.NotFoundException;
 import com.daalfa.blog.service.mapper.BlogPostMapper;
 import com.daalfa.blog.service.model.BlogPost;
 import com.daalfa.blog.service.model.Comment;
 import com.daalfa.blog.service.repository.BlogPostRepository;
 import com.daalfa.blog.service.repository.CommentRepository;
+import com.daalfa.blog.service.repository.CommentText;
+import com.daalfa.blog.service.repository.PostDetailRow;
+import com.daalfa.blog.service.search.PostSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +52,25 @@ class BlogPostServiceTest {
     @Mock
     private BlogPostMapper mapper;
 
+    @Spy
+    private PostDetailCache postCache = new PostDetailCache(
+            new PostCacheProperties(false, 0, Duration.ZERO), new SimpleMeterRegistry());
+
+    @Mock
+    private KnownPostIds knownPostIds;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private PostSearchIndex searchIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private BlogPostService blogPostService;
 
@@ -40,20 +78,22 @@ class BlogPostServiceTest {
     public void givenValidId_whenGetPostById_thenReturnBlogPost() {
         Long postId = 200L;
 
-        var post = new BlogPost();
-        post.setId(postId);
-        post.setTitle("title");
-        post.setContent("content");
+        var post = new PostDetailRow(postId, "title", "content", 0, 0L, null, null);
 
         var dto = new BlogPostResponseWithCommentsDTO(
                 postId,
                 "title",
                 "content",
-                emptyList()
+                emptyList(),
+                0,
+                null,
+                0L
                 );
 
-        when(blogPostRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(mapper.toBlogPostResponseWithCommentsDTO(post)).thenReturn(dto);
+        when(knownPostIds.exists(postId)).thenReturn(true);
+        when(blogPostRepository.findDetailRows(postId, Limit.of(BlogPostService.EMBEDDED_COMMENTS + 1)))
+                .thenReturn(List.of(post));
+        when(mapper.toBlogPostResponseWithCommentsDTO(post, emptyList(), null)).thenReturn(dto);
 
         var result = blogPostService.getPostById(postId);
 
@@ -61,13 +101,38 @@ class BlogPostServiceTest {
     }
 
     @Test
-    public void givenValidRequest_whenGetAllPosts_thenReturnBlogPost() {
+    public void givenUncachedPost_whenGetPostVersion_thenReadOnlyTheVersion() {
         Long postId = 200L;
 
-        var post = new BlogPost();
-        post.setId(postId);
-        post.setTitle("title");
-        post.setContent("content");
+        when(knownPostIds.exists(postId)).thenReturn(true);
+        when(blogPostRepository.findVersionById(postId)).thenReturn(Optional.of(3L));
+
+        var result = blogPostService.getPostVersion(postId);
+
+        assertThat(result).isEqualTo(3L);
+    }
+
+    @Test
+    public void givenMoreCommentsThanLimit_whenGetComments_thenReturnNextCursor() {
+        Long postId = 200L;
+        var first = commentText(10L, postId, "first");
+        var second = commentText(11L, postId, "second");
+        var third = commentText(12L, postId, "third");
+
+        when(knownPostIds.exists(postId)).thenReturn(true);
+        when(commentRepository.findPageByPostId(postId, 5L, Limit.of(3))).thenReturn(List.of(first, second, third));
+        when(mapper.toCommentDTO(first)).thenReturn(new CommentDTO("first"));
+        when(mapper.toCommentDTO(second)).thenReturn(new CommentDTO("second"));
+
+        var result = blogPostService.getComments(postId, 5L, 2);
+
+        assertThat(result).isEqualTo(new CommentPageDTO(
+                List.of(new CommentDTO("first"), new CommentDTO("second")), 11L));
+    }
+
+    @Test
+    public void givenValidRequest_whenGetAllPosts_thenReturnBlogPost() {
+        Long postId = 200L;
 
         var dto = new BlogPostResponseSummaryDTO(
                 postId,
@@ -76,12 +141,35 @@ class BlogPostServiceTest {
                 0
         );
 
-        when(blogPostRepository.findAll()).thenReturn(List.of(post));
-        when(mapper.toBlogPostResponseSummaryDTO(post)).thenReturn(dto);
+        when(blogPostRepository.findSummariesAfter(0L, Limit.of(3))).thenReturn(List.of(dto));
+
+        var result = blogPostService.getAllPosts(0L, 2);
+
+        assertThat(result).isEqualTo(new BlogPostSummaryPageDTO(List.of(dto), null));
+    }
+
+    @Test
+    public void givenMorePostsThanLimit_whenGetAllPosts_thenReturnNextCursor() {
+        var first = new BlogPostResponseSummaryDTO(1L, "title", "content", 0);
+        var second = new BlogPostResponseSummaryDTO(2L, "title", "content", 0);
+
+        when(blogPostRepository.findSummariesAfter(0L, Limit.of(2))).thenReturn(List.of(first, second));
+
+        var result = blogPostService.getAllPosts(0L, 1);
+
+        assertThat(result).isEqualTo(new BlogPostSummaryPageDTO(List.of(first), 1L));
+    }
+
+    @Test
+    public void givenPosts_whenStreamAllPosts_thenConsumeEveryPost() {
+        var dto = new BlogPostResponseSummaryDTO(1L, "title", "content", 0);
+        List<BlogPostResponseSummaryDTO> consumed = new ArrayList<>();
+
+        when(blogPostRepository.streamAllSummaries()).thenReturn(Stream.of(dto));
 
-        var result = blogPostService.getAllPosts();
+        blogPostService.streamAllPosts(consumed::add);
 
-        assertThat(result).isEqualTo(List.of(dto));
+        assertThat(consumed).isEqualTo(List.of(dto));
     }
 
     @Test
@@ -108,6 +196,7 @@ class BlogPostServiceTest {
         var result = blogPostService.createPost(dtoRequest);
 
         assertThat(result).isEqualTo(dtoResponse);
+        verify(eventPublisher).publishEvent(new PostCreatedEvent(dtoResponse));
     }
 
     @Test
@@ -124,7 +213,9 @@ class BlogPostServiceTest {
         Comment comment = new Comment();
         comment.setMessage("message");
 
-        when(blogPostRepository.findById(postId)).thenReturn(Optional.of(post));
+        when(knownPostIds.exists(postId)).thenReturn(true);
+        when(blogPostRepository.incrementCommentCount(postId, 1)).thenReturn(1);
+        when(blogPostRepository.getReferenceById(postId)).thenReturn(post);
         when(mapper.toCommentEntity(commentDTO)).thenReturn(comment);
         when(commentRepository.save(comment)).thenReturn(comment);
         when(mapper.toCommentDTO(comment)).thenReturn(commentDTO);
@@ -132,29 +223,156 @@ class BlogPostServiceTest {
         var result = blogPostService.createComment(postId, commentDTO);
 
         assertThat(result).isEqualTo(commentDTO);
+        assertThat(comment.getBlogPost()).isEqualTo(post);
+        verify(eventPublisher).publishEvent(new CommentCreatedEvent(postId, null, commentDTO));
+    }
+
+    @Test
+    public void givenValidComments_whenCreateComments_thenReturnResultsInOrder() {
+        Long postId = 200L;
+
+        var post = new BlogPost();
+        post.setId(postId);
+
+        var first = new CommentDTO("first");
+        var second = new CommentDTO("second");
+
+        Comment firstComment = new Comment();
+        firstComment.setMessage("first");
+        Comment secondComment = new Comment();
+        secondComment.setMessage("second");
+
+        when(knownPostIds.exists(postId)).thenReturn(true);
+        when(blogPostRepository.incrementCommentCount(postId, 2)).thenReturn(1);
+        when(blogPostRepository.getReferenceById(postId)).thenReturn(post);
+        when(mapper.toCommentEntity(first)).thenReturn(firstComment);
+        when(mapper.toCommentEntity(second)).thenReturn(secondComment);
+        when(mapper.toCommentDTO(firstComment)).thenReturn(first);
+        when(mapper.toCommentDTO(secondComment)).thenReturn(second);
+
+        var result = blogPostService.createComments(postId, List.of(first, second));
+
+        assertThat(result).isEqualTo(List.of(
+                new CommentBatchResultDTO(0, 201, postId, first, null, null),
+                new CommentBatchResultDTO(1, 201, postId, second, null, null)));
+        verify(commentRepository).saveAll(List.of(firstComment, secondComment));
+    }
+
+    @Test
+    public void givenUnknownPost_whenCreateCommentsAcrossPosts_thenReturnNotFoundItem() {
+        var item = new CommentBatchItemDTO(404L, "message");
+
+        when(knownPostIds.exists(404L)).thenReturn(true);
+        when(blogPostRepository.incrementCommentCount(404L, 1)).thenReturn(0);
+
+        var result = blogPostService.createComments(List.of(item));
+
+        assertThat(result).isEqualTo(List.of(
+                new CommentBatchResultDTO(0, 404, 404L, null, "BlogPost not found", null)));
+    }
+
+    @Test
+    public void givenQuery_whenSearchPosts_thenReturnIndexResults() {
+        var page = new PostSearchPageDTO(List.of(new PostSearchResultDTO(1L, "title", 1.5)), 1);
+
+        when(searchIndex.search("title", 0, 20)).thenReturn(page);
+
+        var result = blogPostService.searchPosts("title", 0, 20);
+
+        assertThat(result).isEqualTo(page);
     }
 
     // Negative Tests
     @Test
-    public void givenInvalidId_whenGetPostById_thenThrowNotFoundException() {
+    public void givenDeletedPost_whenGetPostById_thenThrowNotFoundException() {
         Long postId = 0L;
 
-        when(blogPostRepository.findById(postId)).thenReturn(Optional.empty());
+        when(knownPostIds.exists(postId)).thenReturn(true);
+        when(blogPostRepository.findDetailRows(postId, Limit.of(BlogPostService.EMBEDDED_COMMENTS + 1)))
+                .thenReturn(emptyList());
 
         assertThatExceptionOfType(NotFoundException.class)
                 .isThrownBy(() -> blogPostService.getPostById(postId))
                 .withMessage("BlogPost not found");
     }
 
+    @Test
+    public void givenUnknownId_whenGetPostById_thenThrowNotFoundExceptionWithoutQuery() {
+        Long postId = 0L;
+
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> blogPostService.getPostById(postId))
+                .withMessage("BlogPost not found")
+                .satisfies(ex -> assertThat(ex.getStackTrace()).isEmpty());
+        verifyNoInteractions(blogPostRepository, commentRepository);
+    }
+
+    @Test
+    public void givenInvalidPostId_whenGetPostVersion_thenThrowNotFoundException() {
+        Long postId = 0L;
+
+        when(knownPostIds.exists(postId)).thenReturn(true);
+        when(blogPostRepository.findVersionById(postId)).thenReturn(Optional.empty());
+
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> blogPostService.getPostVersion(postId))
+                .withMessage("BlogPost not found");
+    }
+
+    @Test
+    public void givenInvalidPostId_whenGetComments_thenThrowNotFoundException() {
+        Long postId = 0L;
+
+        when(knownPostIds.exists(postId)).thenReturn(true);
+        when(commentRepository.findPageByPostId(postId, 0L, Limit.of(51))).thenReturn(emptyList());
+        when(blogPostRepository.existsById(postId)).thenReturn(false);
+
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> blogPostService.getComments(postId, 0L, 50))
+                .withMessage("BlogPost not found");
+    }
+
+    @Test
+    public void givenInvalidPostId_whenCreateComments_thenThrowNotFoundException() {
+        Long postId = 0L;
+
+        when(knownPostIds.exists(postId)).thenReturn(true);
+        when(blogPostRepository.incrementCommentCount(postId, 1)).thenReturn(0);
+
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> blogPostService.createComments(postId, List.of(new CommentDTO("message"))))
+                .withMessage("BlogPost not found");
+    }
+
     @Test
     public void givenInvalidPostId_whenCreateComment_thenThrowNotFoundException() {
         Long postId = 0L;
         var commentDTO = new CommentDTO("message");
 
-        when(blogPostRepository.findById(postId)).thenReturn(Optional.empty());
+        when(knownPostIds.exists(postId)).thenReturn(true);
+        when(blogPostRepository.incrementCommentCount(postId, 1)).thenReturn(0);
 
         assertThatExceptionOfType(NotFoundException.class)
                 .isThrownBy(() -> blogPostService.createComment(postId, commentDTO))
                 .withMessage("BlogPost not found");
     }
-}
\ No newline at end of file
+
+    private static CommentText commentText(Long id, Long postId, String message) {
+        return new CommentText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getPostId() {
+                return postId;
+            }
+
+            @Override
+            public String getMessage() {
+                return message;
+            }
+        };
+    }
+}